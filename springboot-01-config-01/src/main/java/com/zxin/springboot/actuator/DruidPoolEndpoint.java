@@ -0,0 +1,50 @@
+package com.zxin.springboot.actuator;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// 连接池的实时指标: GET /actuator/druid
+// 突发流量时先看 waitThreadCount / notEmptyWaitMillis, 一直有线程在等说明 maxActive 不够或者 SQL 太慢
+@Component
+@Endpoint(id = "druid")
+public class DruidPoolEndpoint {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @ReadOperation
+    public Map<String, Object> pool() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!(dataSource instanceof DruidDataSource)) {
+            return result;
+        }
+        DruidDataSource druid = (DruidDataSource) dataSource;
+        // 连接数
+        result.put("maxActive", druid.getMaxActive());
+        result.put("activeCount", druid.getActiveCount());      // 正在被使用的
+        result.put("activePeak", druid.getActivePeak());
+        result.put("poolingCount", druid.getPoolingCount());    // 池里空闲的
+        result.put("createCount", druid.getCreateCount());
+        result.put("destroyCount", druid.getDestroyCount());
+        result.put("errorCount", druid.getErrorCount());
+        // 等待连接
+        result.put("waitThreadCount", druid.getWaitThreadCount());       // 当前在等连接的线程数
+        result.put("notEmptyWaitCount", druid.getNotEmptyWaitCount());   // 累计等待次数
+        result.put("notEmptyWaitMillis", druid.getNotEmptyWaitMillis()); // 累计等待时间
+        // PreparedStatement 缓存
+        long hit = druid.getCachedPreparedStatementHitCount();
+        long miss = druid.getCachedPreparedStatementMissCount();
+        result.put("psCacheCount", druid.getCachedPreparedStatementCount());
+        result.put("psCacheHitCount", hit);
+        result.put("psCacheMissCount", miss);
+        result.put("psCacheHitRatio", hit + miss == 0 ? 0 : (double) hit / (hit + miss));
+        return result;
+    }
+}
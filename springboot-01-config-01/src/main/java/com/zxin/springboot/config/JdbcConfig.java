@@ -23,13 +23,54 @@ public class JdbcConfig {
     @Value("${jdbc.password}")
     String password;
 
-    @Bean // 加入到容器中
+    // 连接池的配置, 冒号后面是没有配置时的默认值
+    @Value("${jdbc.initialSize:5}")
+    int initialSize;
+    @Value("${jdbc.minIdle:5}")
+    int minIdle;
+    @Value("${jdbc.maxActive:20}")
+    int maxActive;
+    @Value("${jdbc.maxWait:3000}")
+    long maxWait;
+    @Value("${jdbc.poolPreparedStatements:true}")
+    boolean poolPreparedStatements;
+    @Value("${jdbc.maxPoolPreparedStatementPerConnectionSize:20}")
+    int maxPoolPreparedStatementPerConnectionSize;
+    @Value("${jdbc.validationQuery:SELECT 1}")
+    String validationQuery;
+    @Value("${jdbc.testWhileIdle:true}")
+    boolean testWhileIdle;
+    @Value("${jdbc.testOnBorrow:false}")
+    boolean testOnBorrow;
+    @Value("${jdbc.testOnReturn:false}")
+    boolean testOnReturn;
+    @Value("${jdbc.timeBetweenEvictionRunsMillis:60000}")
+    long timeBetweenEvictionRunsMillis;
+    @Value("${jdbc.minEvictableIdleTimeMillis:300000}")
+    long minEvictableIdleTimeMillis;
+    @Value("${jdbc.keepAlive:true}")
+    boolean keepAlive;
+
+    @Bean // 加入到容器中, 第一次拿连接时才会建好 initialSize 个连接
     public DataSource dataSource(){
         DruidDataSource dataSource = new DruidDataSource();
         dataSource.setDriverClassName(driverClassName);
         dataSource.setUrl(url);
         dataSource.setUsername(username);
         dataSource.setPassword(password);
+        dataSource.setInitialSize(initialSize);
+        dataSource.setMinIdle(minIdle);
+        dataSource.setMaxActive(maxActive);
+        dataSource.setMaxWait(maxWait);
+        dataSource.setPoolPreparedStatements(poolPreparedStatements);
+        dataSource.setMaxPoolPreparedStatementPerConnectionSize(maxPoolPreparedStatementPerConnectionSize);
+        dataSource.setValidationQuery(validationQuery);
+        dataSource.setTestWhileIdle(testWhileIdle);
+        dataSource.setTestOnBorrow(testOnBorrow);
+        dataSource.setTestOnReturn(testOnReturn);
+        dataSource.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+        dataSource.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+        dataSource.setKeepAlive(keepAlive);
         return dataSource;
     }
 }
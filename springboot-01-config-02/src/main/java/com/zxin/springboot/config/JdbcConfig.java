@@ -19,8 +19,22 @@ public class JdbcConfig {
         DruidDataSource dataSource = new DruidDataSource();
         dataSource.setDriverClassName(prop.getDriverClassName());
         dataSource.setUrl(prop.getUrl());
-        dataSource.setUsername(prop.getUrl());
+        dataSource.setUsername(prop.getUsername());
         dataSource.setPassword(prop.getPassword());
+        // 连接池
+        dataSource.setInitialSize(prop.getInitialSize());
+        dataSource.setMinIdle(prop.getMinIdle());
+        dataSource.setMaxActive(prop.getMaxActive());
+        dataSource.setMaxWait(prop.getMaxWait());
+        dataSource.setPoolPreparedStatements(prop.isPoolPreparedStatements());
+        dataSource.setMaxPoolPreparedStatementPerConnectionSize(prop.getMaxPoolPreparedStatementPerConnectionSize());
+        dataSource.setValidationQuery(prop.getValidationQuery());
+        dataSource.setTestWhileIdle(prop.isTestWhileIdle());
+        dataSource.setTestOnBorrow(prop.isTestOnBorrow());
+        dataSource.setTestOnReturn(prop.isTestOnReturn());
+        dataSource.setTimeBetweenEvictionRunsMillis(prop.getTimeBetweenEvictionRunsMillis());
+        dataSource.setMinEvictableIdleTimeMillis(prop.getMinEvictableIdleTimeMillis());
+        dataSource.setKeepAlive(prop.isKeepAlive());
         return dataSource;
     }
 }
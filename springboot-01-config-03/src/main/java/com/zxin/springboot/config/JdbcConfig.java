@@ -13,6 +13,7 @@ public class JdbcConfig {
 
     @Bean // Spring会调用这个, 因为注解EnableConfigurationProperties会应用那个属性
     // 声明要注入的属性前缀，SpringBoot会自动把相关属性通过set方法注入到DataSource中
+    // 连接池的配置 (jdbc.initialSize, jdbc.maxActive 等) 也是这样直接注入的, 见 application.properties
     @ConfigurationProperties(prefix = "jdbc")
     public DataSource dataSource() {
         DruidDataSource dataSource = new DruidDataSource();
@@ -4,9 +4,11 @@ package com.zxin.springboot;
 import tk.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
 @MapperScan("com.zxin.springboot.mapper")
+@EnableCaching // 开启缓存注解
 public class SpringBoot02SimpleCrudApplication {
 
 	public static void main(String[] args) {
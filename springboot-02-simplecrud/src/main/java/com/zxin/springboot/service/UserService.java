@@ -3,6 +3,8 @@ package com.zxin.springboot.service;
 import com.zxin.springboot.mapper.UserMapper;
 import com.zxin.springboot.pojo.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,11 +14,13 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Cacheable(cacheNames = "user", key = "#id", unless = "#result == null") // 先查缓存, 没有再查数据库并放进缓存
     public User queryById(Integer id){
         return userMapper.selectByPrimaryKey(id);
     }
 
     @Transactional  // 事务
+    @CacheEvict(cacheNames = "user", key = "#user.id") // 写完清掉缓存, 方法执行完才算key, 这时已经有自增id了
     public void insertUser(User user){
         userMapper.insert(user);
     }
@@ -3,6 +3,7 @@ package com.zxin.springcloud;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
@@ -14,8 +15,9 @@ public class SpringCloud01HttpRestTemplateApplication {
 
 	// 使用RestTemplate
 	@Bean
-	public RestTemplate restTemplate() {
+	public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
 		// 默认的RestTemplate，底层是走JDK的URLConnection方式。
-		return new RestTemplate();
+		// 这里换成带连接池的 HttpClient (见 HttpClientConfig)
+		return new RestTemplate(clientHttpRequestFactory);
 	}
 }
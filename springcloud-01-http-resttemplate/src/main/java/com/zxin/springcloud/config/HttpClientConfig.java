@@ -0,0 +1,53 @@
+package com.zxin.springcloud.config;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+
+// 用 Apache HttpClient 的连接池代替 JDK 的 URLConnection, 连接可以复用, 每个下游实例的连接数有上限
+// 每一章都是单独运行的项目, 所以 consumer-demo-good-2 里有一份一样的 (连同 HttpClientProperties), 改的时候两边一起改
+@Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean
+    public CloseableHttpClient httpClient(HttpClientProperties prop) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(prop.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(prop.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) prop.getValidateAfterInactivity().toMillis());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) prop.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) prop.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) prop.getConnectionRequestTimeout().toMillis())
+                .build();
+
+        long keepAlive = prop.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // 服务端返回了 Keep-Alive: timeout=x 就用它, 但不超过配置的值
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(prop.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS) // 后台线程清理空闲连接
+                .build();
+    }
+
+    @Bean // 关闭时会一起关掉 httpClient 和连接池
+    public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
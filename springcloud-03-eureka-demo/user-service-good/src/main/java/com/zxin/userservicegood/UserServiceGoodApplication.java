@@ -2,12 +2,14 @@ package com.zxin.userservicegood;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import tk.mybatis.spring.annotation.MapperScan;
 
 @SpringBootApplication
 @EnableDiscoveryClient // 这里不用 EnableEurekaClient，这个还可以用Zookper之类的(抽象了)
 @MapperScan("com.zxin.userservicegood.mapper")
+@EnableCaching
 public class UserServiceGoodApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(UserServiceGoodApplication.class, args);
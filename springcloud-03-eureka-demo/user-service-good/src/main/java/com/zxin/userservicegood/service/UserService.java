@@ -3,6 +3,8 @@ package com.zxin.userservicegood.service;
 import com.zxin.userservicegood.mapper.UserMapper;
 import com.zxin.userservicegood.pojo.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,11 +14,13 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Cacheable(cacheNames = "user", key = "#id", unless = "#result == null")
     public User queryById(Integer id){
         return userMapper.selectByPrimaryKey(id);
     }
 
     @Transactional  // 事务
+    @CacheEvict(cacheNames = "user", key = "#user.id")
     public void insertUser(User user){
         userMapper.insert(user);
     }
@@ -8,7 +8,9 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.netflix.hystrix.EnableHystrix;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
 //@SpringBootApplication
 //@EnableDiscoveryClient
@@ -24,8 +26,14 @@ public class ConsumerDemoGood2Application {
 
 	@Bean
 	@LoadBalanced // 实现Ribbon负载均衡
-	public RestTemplate restTemplate(){
-		return new RestTemplate();
+	public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory){
+		return new RestTemplate(clientHttpRequestFactory); // 带连接池的 HttpClient (见 HttpClientConfig)
+	}
+
+	@Bean
+	@LoadBalanced // WebClient 也走 Ribbon 负载均衡, 给异步的 AsyncUserClient 用
+	public WebClient.Builder webClientBuilder(){
+		return WebClient.builder();
 	}
 
 }
@@ -0,0 +1,35 @@
+package com.zxin.consumerdemogood.client;
+
+import com.zxin.consumerdemogood.pojo.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// 异步的 UserClient: WebClient 底层是 Netty, 等待响应时不占线程
+// 和 UserClient、User 一样每个消费者模块一份 (consumer-demo-good-4 里的只是服务名不同), 返回的是本模块的 User
+// webClientBuilder 加了 @LoadBalanced, 所以 http://user-service-good-2 会走 Ribbon 负载均衡
+@Component
+public class AsyncUserClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public AsyncUserClient(WebClient.Builder webClientBuilder,
+                           @Value("${async-client.timeout:3000ms}") Duration timeout) {
+        this.webClient = webClientBuilder.baseUrl("http://user-service-good-2").build();
+        this.timeout = timeout;
+    }
+
+    // 用户不存在时结果为 null, 超时或者出错时 future 异常结束, 由调用方降级
+    public CompletableFuture<User> queryById(Integer id) {
+        return webClient.get()
+                .uri("/user/{id}", id)
+                .retrieve()
+                .bodyToMono(User.class)
+                .timeout(timeout)
+                .toFuture();
+    }
+}
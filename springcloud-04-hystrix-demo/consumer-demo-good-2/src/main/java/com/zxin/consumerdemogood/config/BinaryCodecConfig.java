@@ -0,0 +1,33 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(BinaryCodecProperties.class)
+public class BinaryCodecConfig {
+
+    // LoadBalancerAutoConfiguration 会把 RestTemplateCustomizer 用到所有 @LoadBalanced 的 RestTemplate 上
+    // classpath 上有 jackson-dataformat-smile/cbor 时 RestTemplate 默认就有对应的转换器, 只是排在 JSON 后面
+    // 把它挪到最前面: Accept 里它排第一, 服务端优先返回它; JSON 转换器还在, 服务端不支持时照样能解析
+    @Bean
+    public RestTemplateCustomizer binaryCodecRestTemplateCustomizer(BinaryCodecProperties prop) {
+        return restTemplate -> {
+            if (prop.getType() == BinaryCodec.JSON) {
+                return;
+            }
+            List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+            for (int i = 0; i < converters.size(); i++) {
+                if (converters.get(i).getSupportedMediaTypes().contains(prop.getType().getMediaType())) {
+                    converters.add(0, converters.remove(i));
+                    return;
+                }
+            }
+        };
+    }
+}
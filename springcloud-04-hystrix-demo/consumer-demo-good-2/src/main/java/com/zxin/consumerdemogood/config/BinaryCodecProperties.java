@@ -0,0 +1,16 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "binary-codec")  // 服务之间调用的编码
+public class BinaryCodecProperties {
+    BinaryCodec type = BinaryCodec.JSON;  // smile / cbor 要 user-service 也有对应的 jackson-dataformat 依赖, 没有时会退回 JSON
+
+    public BinaryCodec getType() {
+        return type;
+    }
+
+    public void setType(BinaryCodec type) {
+        this.type = type;
+    }
+}
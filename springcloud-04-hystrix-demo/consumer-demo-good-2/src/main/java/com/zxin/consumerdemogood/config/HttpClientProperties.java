@@ -0,0 +1,81 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "http-client")  // RestTemplate 底层连接池的配置
+public class HttpClientProperties {
+    int maxTotal = 200;                                     // 连接池总连接数
+    int maxPerRoute = 50;                                   // 每个下游实例(host:port)最多的连接数
+    Duration connectTimeout = Duration.ofMillis(250);       // 建立连接的超时
+    Duration readTimeout = Duration.ofMillis(1000);         // 读数据的超时
+    Duration connectionRequestTimeout = Duration.ofMillis(100); // 从连接池拿连接的超时
+    Duration keepAlive = Duration.ofSeconds(30);            // 服务端没返回 Keep-Alive 时, 连接最多复用多久
+    Duration idleTimeout = Duration.ofSeconds(30);          // 空闲超过这个时间的连接由后台线程关掉
+    Duration validateAfterInactivity = Duration.ofSeconds(2); // 空闲超过这个时间, 复用前先检查连接是否可用
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public Duration getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(Duration validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+}
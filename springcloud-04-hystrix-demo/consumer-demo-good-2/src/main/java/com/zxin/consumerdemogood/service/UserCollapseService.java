@@ -0,0 +1,65 @@
+package com.zxin.consumerdemogood.service;
+
+import com.netflix.hystrix.HystrixCollapser.Scope;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCollapser;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
+import com.zxin.consumerdemogood.pojo.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class UserCollapseService {
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    // 请求合并: 时间窗口内(hystrix.collapser.userQueryById.*)的单个查询会被合并成一次 queryByIds 调用
+    // GLOBAL: 跨请求合并，不同的 /consumer/{id} 请求也能合并到一批
+    @HystrixCollapser(batchMethod = "queryByIds", collapserKey = "userQueryById", scope = Scope.GLOBAL)
+    public User queryById(Integer id) {
+        return null; // 不会被调用，由 Hystrix 代理到 queryByIds
+    }
+
+    // 批量方法: 返回结果的个数和顺序必须和 ids 一一对应, 熔断配置也放在这里
+    @HystrixCommand(fallbackMethod = "queryByIdsFallback", commandProperties = {
+            @HystrixProperty(name = "circuitBreaker.requestVolumeThreshold", value = "10"),
+            @HystrixProperty(name = "circuitBreaker.sleepWindowInMilliseconds", value = "10000"),
+            @HystrixProperty(name = "circuitBreaker.errorThresholdPercentage", value = "60"),
+    })
+    public List<User> queryByIds(List<Integer> ids) {
+        // 帮我们实现了负载均衡
+        String url = "http://user-service-good-2/user?ids={ids}";
+        User[] found = restTemplate.getForObject(url, User[].class, StringUtils.collectionToCommaDelimitedString(ids));
+        Map<Integer, User> userMap = new HashMap<>();
+        if (found != null) {
+            for (User user : found) {
+                userMap.put(user.getId(), user);
+            }
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            users.add(userMap.get(id));
+        }
+        return users;
+    }
+
+    // 必须保证和它对应的方法　的返回结果和参数一样
+    public List<User> queryByIdsFallback(List<Integer> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            User user = new User();
+            user.setId(id);
+            user.setLastName("不好意思，服务器正忙...");
+            users.add(user);
+        }
+        return users;
+    }
+}
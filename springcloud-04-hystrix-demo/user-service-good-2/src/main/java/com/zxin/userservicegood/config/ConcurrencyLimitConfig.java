@@ -0,0 +1,45 @@
+package com.zxin.userservicegood.config;
+
+import com.zxin.userservicegood.limit.ConcurrencyLimitInterceptor;
+import com.zxin.userservicegood.limit.ConcurrencyLimiter;
+import com.zxin.userservicegood.limit.VegasLimit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "concurrency-limit", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ConcurrencyLimitProperties prop;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    // 只管 QueryController (/user, /user/{id}), actuator 等不受限制
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new ConcurrencyLimitInterceptor(this::newLimiter)).addPathPatterns("/user", "/user/**");
+    }
+
+    private ConcurrencyLimiter newLimiter(String endpoint) {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new VegasLimit(prop.getInitialLimit(),
+                prop.getMinLimit(), prop.getMaxLimit(), prop.getProbeMultiplier()));
+        // /actuator/metrics/concurrency.limit?tag=endpoint:QueryController.hello 等: 看 limit 怎么随负载变化
+        Gauge.builder("concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                .tag("endpoint", endpoint).register(registry);
+        Gauge.builder("concurrency.inflight", limiter, ConcurrencyLimiter::getInflight)
+                .tag("endpoint", endpoint).register(registry);
+        FunctionCounter.builder("concurrency.rejected", limiter, ConcurrencyLimiter::getRejected)
+                .tag("endpoint", endpoint).register(registry);
+        return limiter;
+    }
+}
@@ -0,0 +1,52 @@
+package com.zxin.userservicegood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "concurrency-limit")  // QueryController 前面的自适应并发限制, 每个接口一份
+public class ConcurrencyLimitProperties {
+    boolean enabled = true;
+    int initialLimit = 20;
+    int minLimit = 5;
+    int maxLimit = 90;        // 每个接口的上限, 加起来要比 Tomcat 的线程数 (server.tomcat.max-threads, 默认 200) 小, 留一些线程给 actuator 等
+    int probeMultiplier = 30; // 大约每 probeMultiplier * limit 个请求重新测一次空载的响应时间
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public int getProbeMultiplier() {
+        return probeMultiplier;
+    }
+
+    public void setProbeMultiplier(int probeMultiplier) {
+        this.probeMultiplier = probeMultiplier;
+    }
+}
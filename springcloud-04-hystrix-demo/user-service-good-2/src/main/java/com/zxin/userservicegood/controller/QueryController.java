@@ -7,8 +7,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("user")
 public class QueryController {
@@ -20,6 +23,12 @@ public class QueryController {
     public User hello(@PathVariable("id") Integer id){
         return userService.queryById(id);
     }
+
+    // 批量查询: GET /user?ids=1,2,3  一次 IN 查询代替多次单条查询
+    @GetMapping
+    public List<User> queryByIds(@RequestParam("ids") List<Integer> ids){
+        return userService.queryByIds(ids);
+    }
 }
 
 
@@ -0,0 +1,72 @@
+package com.zxin.userservicegood.limit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// 在 QueryController 前面限制并发: 超过 limit 马上返回 503, 调用方的 Hystrix 直接降级, 不用等到超时
+// 每个接口一个 limiter: 单条查询和批量查询的响应时间差很多, 放在一起的话快的当了基准, 慢的全都像在排队
+// 每个请求的耗时和出错情况反馈给自己接口的 VegasLimit 调整 limit
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrentMap<Method, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final Function<String, ConcurrencyLimiter> limiterFactory; // 参数是接口名, 如 QueryController.hello
+
+    public ConcurrencyLimitInterceptor(Function<String, ConcurrencyLimiter> limiterFactory) {
+        this.limiterFactory = limiterFactory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimiter limiter = limiterFor((HandlerMethod) handler);
+        int inflight = limiter.tryAcquire();
+        if (inflight < 0) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "concurrency limit exceeded");
+            return false;
+        }
+        request.setAttribute(PERMIT, new Permit(limiter, inflight));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Permit permit = (Permit) request.getAttribute(PERMIT);
+        if (permit == null) {
+            return;
+        }
+        request.removeAttribute(PERMIT);
+        boolean dropped = ex != null || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        permit.limiter.release(permit.inflight, System.nanoTime() - permit.start, dropped);
+    }
+
+    ConcurrencyLimiter limiterFor(HandlerMethod handler) {
+        return limiters.computeIfAbsent(handler.getMethod(), method ->
+                limiterFactory.apply(handler.getBeanType().getSimpleName() + "." + method.getName()));
+    }
+
+    private static class Permit {
+        final ConcurrencyLimiter limiter;
+        final int inflight;
+        final long start = System.nanoTime();
+
+        Permit(ConcurrencyLimiter limiter, int inflight) {
+            this.limiter = limiter;
+            this.inflight = inflight;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zxin.userservicegood.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 正在处理的请求数不超过 VegasLimit 估计的 limit, 超过的直接拒绝, 不在 Tomcat 的线程池里排队
+public class ConcurrencyLimiter {
+
+    private final VegasLimit limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(VegasLimit limit) {
+        this.limit = limit;
+    }
+
+    // 返回开始处理时的并发数 (release 时要传回来), 超过 limit 返回 -1
+    public int tryAcquire() {
+        int current = inflight.incrementAndGet();
+        if (current > limit.getLimit()) {
+            inflight.decrementAndGet();
+            rejected.increment();
+            return -1;
+        }
+        return current;
+    }
+
+    public void release(int acquiredInflight, long rtt, boolean dropped) {
+        inflight.decrementAndGet();
+        limit.onSample(rtt, acquiredInflight, dropped);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
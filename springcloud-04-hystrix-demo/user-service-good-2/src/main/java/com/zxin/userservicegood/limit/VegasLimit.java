@@ -0,0 +1,90 @@
+package com.zxin.userservicegood.limit;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+
+// 按 TCP Vegas 的思路估计服务能承受的并发数:
+// 空载时的响应时间 rttNoLoad 是基准, 实际响应时间比它长出来的部分就是在排队, 排队的请求数 = limit * (1 - rttNoLoad / rtt)
+// 排队少就把 limit 调大, 排队多或者出错就调小; 每隔一段时间用这段时间里最短的响应时间重新当基准, 适应服务本身变快变慢
+public class VegasLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int probeMultiplier;
+    private final IntUnaryOperator probeJitter; // 参数是当前的 limit, 返回 [0, limit) 里的一个数
+
+    private volatile int limit;
+    private long rttNoLoad;     // 纳秒, 0 表示还没有样本
+    private long windowMinRtt;  // 上次重新测基准以来最短的响应时间, 0 表示还没有样本
+    private int probeCountdown; // 还有多少个样本之后重新测基准
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier) {
+        this(initialLimit, minLimit, maxLimit, probeMultiplier,
+                bound -> (int) (ThreadLocalRandom.current().nextDouble() * bound));
+    }
+
+    // 测试里用固定的 probeJitter, 重新测基准的时机是确定的
+    VegasLimit(int initialLimit, int minLimit, int maxLimit, int probeMultiplier, IntUnaryOperator probeJitter) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.probeMultiplier = probeMultiplier;
+        this.probeJitter = probeJitter;
+        this.probeCountdown = nextProbeCountdown(initialLimit);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // 并发量只有几十到几百, 一次计算很快, 直接加锁
+    // inflight: 这个请求开始时正在处理的请求数 (包括它自己); dropped: 出错或者超时
+    public synchronized void onSample(long rtt, int inflight, boolean dropped) {
+        if (rtt <= 0) {
+            return;
+        }
+        int current = limit;
+        double log = Math.max(1, Math.log10(current));
+        if (dropped) {
+            // 出错的请求可能很快就返回了 (比如连不上数据库), 它的响应时间不能当基准, 只把 limit 调小
+            limit = (int) Math.max(minLimit, current - log);
+            return;
+        }
+        if (windowMinRtt == 0 || rtt < windowMinRtt) {
+            windowMinRtt = rtt;
+        }
+        if (--probeCountdown <= 0) {
+            // 不用刚好碰上的这一个样本, 它可能是在高负载下测的
+            rttNoLoad = windowMinRtt;
+            windowMinRtt = 0;
+            probeCountdown = nextProbeCountdown(limit);
+            return;
+        }
+        if (rttNoLoad == 0 || rtt < rttNoLoad) {
+            rttNoLoad = rtt;
+            return;
+        }
+
+        double newLimit;
+        if (inflight * 2 < current) {
+            return; // 请求不多, 没用满 limit, 样本说明不了 limit 该不该变大
+        } else {
+            double queueSize = Math.ceil(current * (1 - (double) rttNoLoad / rtt));
+            if (queueSize <= log) {
+                newLimit = current + 6 * log; // 几乎不排队, 快速调大
+            } else if (queueSize < 3 * log) {
+                newLimit = current + log;
+            } else if (queueSize > 6 * log) {
+                newLimit = current - log;
+            } else {
+                return;
+            }
+        }
+        limit = (int) Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    // 加一点随机, 多个实例不要同时重新测基准
+    private int nextProbeCountdown(int limit) {
+        return probeMultiplier * limit + probeJitter.applyAsInt(limit);
+    }
+}
@@ -3,8 +3,19 @@ package com.zxin.userservicegood.service;
 import com.zxin.userservicegood.mapper.UserMapper;
 import com.zxin.userservicegood.pojo.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tk.mybatis.mapper.entity.Example;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserService {
@@ -12,13 +23,52 @@ public class UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Value("${user.simulated-latency:2000ms}")
+    private Duration simulatedLatency; // 模拟服务器的延时, 配成 0 就不延时
+
+    // 这个服务是用来演示延时和降级的, 不加缓存, 每次都要等 simulatedLatency
     public User queryById(Integer id){
+        simulateLatency();  //这里是模拟服务器的延时，然后Hystrix就会进行降级处理
+        return userMapper.selectByPrimaryKey(id);
+    }
+
+    // 批量查询，只发一条 SELECT ... WHERE id IN (...)
+    public List<User> queryByIds(List<Integer> ids){
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids); // 去重，保持请求里的顺序
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        simulateLatency();  //同样模拟延时, 但一批只延时一次
+        Example example = new Example(User.class);
+        example.createCriteria().andIn("id", new ArrayList<>(distinctIds));
+        // IN 不保证返回顺序, 按请求里 id 的顺序重新排, 查不到的 id 不返回
+        Map<Integer, User> byId = new HashMap<>();
+        for (User user : userMapper.selectByExample(example)) {
+            byId.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(byId.size());
+        for (Integer id : distinctIds) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    private void simulateLatency() {
+        if (simulatedLatency.isZero()) {
+            return;
+        }
         try {
-            Thread.sleep(2000L);  //这里是模拟服务器的延时，然后Hystrix就会进行降级处理
+            Thread.sleep(simulatedLatency.toMillis());
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
         }
-        return userMapper.selectByPrimaryKey(id);
     }
 
     @Transactional  // 事务
@@ -0,0 +1,43 @@
+package com.zxin.userservicegood.limit;
+
+import com.zxin.userservicegood.controller.QueryController;
+import org.junit.Test;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class ConcurrencyLimitInterceptorTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(2000);
+
+    private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(
+            endpoint -> new ConcurrencyLimiter(new VegasLimit(20, 5, 150, 10000)));
+
+    @Test
+    public void fastAndSlowEndpointsKeepSeparateLimits() throws Exception {
+        QueryController controller = new QueryController();
+        HandlerMethod single = new HandlerMethod(controller, "hello", Integer.class);
+        HandlerMethod batch = new HandlerMethod(controller, "queryByIds", List.class);
+        ConcurrencyLimiter fast = interceptor.limiterFor(single);
+        ConcurrencyLimiter slow = interceptor.limiterFor(batch);
+        assertSame(fast, interceptor.limiterFor(single));
+        assertNotSame(fast, slow);
+
+        // 快慢两种请求交替, 都跑满 limit, 各自的响应时间都没有变长
+        for (int i = 0; i < 100; i++) {
+            fast.tryAcquire();
+            fast.release(fast.getLimit(), FAST, false);
+            slow.tryAcquire();
+            slow.release(slow.getLimit(), SLOW, false);
+        }
+        // 放在一起的话 FAST 是基准, SLOW 的请求全都像在排队, limit 会降到 min-limit
+        assertEquals(150, fast.getLimit());
+        assertEquals(150, slow.getLimit());
+    }
+}
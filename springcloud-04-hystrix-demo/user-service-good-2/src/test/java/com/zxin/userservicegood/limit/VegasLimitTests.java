@@ -0,0 +1,76 @@
+package com.zxin.userservicegood.limit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VegasLimitTests {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    // probeMultiplier 设得很大, 测试期间不会重新测基准
+    private final VegasLimit limit = new VegasLimit(20, 5, 150, 10000);
+
+    @Test
+    public void growsWhileLatencyStaysFlat() {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, limit.getLimit(), false);
+        }
+        assertEquals(150, limit.getLimit());
+    }
+
+    @Test
+    public void doesNotGrowWhenUnderused() {
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, 1, false);
+        }
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void shrinksWhenRequestsQueue() {
+        limit.onSample(RTT, 20, false); // 基准
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT * 2, limit.getLimit(), false); // 响应时间翻倍: 一半的请求在排队
+        }
+        // 停在排队数介于 3*log10(limit) 和 6*log10(limit) 之间的地方
+        assertTrue(limit.getLimit() <= 12);
+    }
+
+    @Test
+    public void shrinksOnErrors() {
+        limit.onSample(RTT, 20, false);
+        limit.onSample(RTT, 20, true);
+        assertTrue(limit.getLimit() < 20);
+    }
+
+    @Test
+    public void fastFailureDoesNotLowerBaseline() {
+        limit.onSample(RTT, 20, false); // 基准
+        limit.onSample(RTT / 100, 20, true); // 马上就失败的请求
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(RTT, limit.getLimit(), false);
+        }
+        // 基准还是 RTT, 正常的请求不算排队, limit 照样调大
+        assertEquals(150, limit.getLimit());
+    }
+
+    @Test
+    public void probeUsesShortestRttSinceLastProbe() {
+        // probeMultiplier = 1, 不加随机: 第 20 个样本重新测基准, 下一次在第 40 个
+        VegasLimit probing = new VegasLimit(20, 5, 150, 1, bound -> 0);
+        probing.onSample(RTT, 1, false);
+        for (int i = 0; i < 19; i++) {
+            probing.onSample(RTT * 2, 1, false); // 变慢了, 但请求不多, limit 不变
+        }
+        // 第 21 ~ 35 个样本, 下一次重新测基准之前
+        for (int i = 0; i < 15; i++) {
+            probing.onSample(RTT * 2, probing.getLimit(), false);
+        }
+        // 基准是这段时间里最短的 RTT, 不是第 20 个样本的 2 * RTT, 响应时间翻倍算排队, limit 调小
+        assertTrue(probing.getLimit() < 20);
+    }
+}
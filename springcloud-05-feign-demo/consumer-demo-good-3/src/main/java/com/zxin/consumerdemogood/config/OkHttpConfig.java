@@ -0,0 +1,43 @@
+package com.zxin.consumerdemogood.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.support.FeignHttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// Feign 默认用 HttpURLConnection, 连接池不能配; 开了 feign.okhttp.enabled 后用这里的 OkHttpClient 发请求
+// 所有 Feign 客户端共用一个连接池
+// 每一章都是单独运行的项目, 所以 springcloud-06-zuul-demo/consumer-demo-good-4 里有一份一样的 (连同 OkHttpProperties), 改的时候两边一起改
+@Configuration
+@EnableConfigurationProperties(OkHttpProperties.class)
+public class OkHttpConfig {
+
+    // 最多保留 max-connections 个空闲连接, 空闲超过 time-to-live 的由 OkHttp 的后台线程关掉
+    @Bean(destroyMethod = "evictAll")
+    public ConnectionPool okHttpConnectionPool(FeignHttpClientProperties httpClientProp) {
+        return new ConnectionPool(httpClientProp.getMaxConnections(),
+                httpClientProp.getTimeToLive(), httpClientProp.getTimeToLiveUnit());
+    }
+
+    @Bean
+    public OkHttpClient okHttpClient(ConnectionPool okHttpConnectionPool, FeignHttpClientProperties httpClientProp,
+                                     OkHttpProperties prop) {
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(okHttpConnectionPool)
+                .connectTimeout(httpClientProp.getConnectionTimeout(), TimeUnit.MILLISECONDS)
+                .readTimeout(prop.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(httpClientProp.isFollowRedirects())
+                .retryOnConnectionFailure(false); // 重试交给 Ribbon, 它会换一个实例
+        if (prop.isHttp2()) {
+            // 每个实例只用一条连接, 请求在上面多路复用
+            builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.zxin.benchmark;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.zxin.consumerdemogood.pojo.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// 同一个远程调用, 直接调用 和 包在 HystrixCommand 里(默认线程隔离) 的差别
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HystrixBenchmark {
+
+    private static final HystrixCommandGroupKey GROUP = HystrixCommandGroupKey.Factory.asKey("user-service");
+
+    private StubUserServer server;
+    private RestTemplate restTemplate;
+    private String userUrl;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubUserServer();
+        restTemplate = new RestTemplate();
+        userUrl = server.baseUrl() + "/user/{id}";
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public User raw() {
+        return restTemplate.getForObject(userUrl, User.class, 1);
+    }
+
+    @Benchmark
+    public User hystrix() {
+        return new HystrixCommand<User>(GROUP) {
+            @Override
+            protected User run() {
+                return restTemplate.getForObject(userUrl, User.class, 1);
+            }
+        }.execute();
+    }
+}
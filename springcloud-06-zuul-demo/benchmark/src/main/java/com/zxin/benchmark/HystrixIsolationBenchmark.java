@@ -0,0 +1,98 @@
+package com.zxin.benchmark;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixCommandProperties.ExecutionIsolationStrategy;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.zxin.consumerdemogood.pojo.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// HystrixCommand 的两种隔离方式 (THREAD / SEMAPHORE) 各自的开销
+// local: run() 只是返回内存里的对象, 相当于缓存命中, 测出来的基本就是隔离本身的开销
+// remote: run() 调本地桩服务, 看隔离的开销在一次远程调用里占多少
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4) // 和 StubUserServer 的线程数一致
+public class HystrixIsolationBenchmark {
+
+    private static final HystrixCommandGroupKey GROUP = HystrixCommandGroupKey.Factory.asKey("isolation");
+
+    @Param({"THREAD", "SEMAPHORE"})
+    private ExecutionIsolationStrategy isolation;
+
+    private StubUserServer server;
+    private RestTemplate restTemplate;
+    private String userUrl;
+    private HystrixCommand.Setter localSetter;
+    private HystrixCommand.Setter remoteSetter;
+    private final User cached = new User();
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubUserServer();
+        restTemplate = new RestTemplate();
+        userUrl = server.baseUrl() + "/user/{id}";
+        cached.setId(1);
+        cached.setLastName("cached");
+        localSetter = setter("local-" + isolation);
+        remoteSetter = setter("remote-" + isolation);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    // 线程池和信号量都比压测线程数大, 不会因为满了走降级
+    private HystrixCommand.Setter setter(String key) {
+        return HystrixCommand.Setter.withGroupKey(GROUP)
+                .andCommandKey(HystrixCommandKey.Factory.asKey(key))
+                .andCommandPropertiesDefaults(HystrixCommandProperties.Setter()
+                        .withExecutionIsolationStrategy(isolation)
+                        .withExecutionIsolationSemaphoreMaxConcurrentRequests(100)
+                        .withExecutionTimeoutInMilliseconds(3000))
+                .andThreadPoolPropertiesDefaults(HystrixThreadPoolProperties.Setter()
+                        .withCoreSize(16));
+    }
+
+    @Benchmark
+    public User local() {
+        return new HystrixCommand<User>(localSetter) {
+            @Override
+            protected User run() {
+                return cached;
+            }
+        }.execute();
+    }
+
+    @Benchmark
+    public User remote() {
+        return new HystrixCommand<User>(remoteSetter) {
+            @Override
+            protected User run() {
+                return restTemplate.getForObject(userUrl, User.class, 1);
+            }
+        }.execute();
+    }
+}
@@ -0,0 +1,100 @@
+package com.zxin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// user-service-good-4 的 /user/page: keyset 分页 和 OFFSET 分页在不同翻页深度下的耗时
+// 用 H2 内存库代替 MySQL, 表结构和 SQL 与 UserMapper.selectPageAfter 一致
+// 期望: keyset 和深度无关, OFFSET 随深度线性变慢
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class KeysetPaginationBenchmark {
+
+    private static final String KEYSET_SQL =
+            "SELECT id, last_name AS lastName, email FROM tbl_user WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String OFFSET_SQL =
+            "SELECT id, last_name AS lastName, email FROM tbl_user ORDER BY id LIMIT ? OFFSET ?";
+
+    @Param("2000000")
+    private int rows;
+
+    @Param({"0", "10000", "1000000", "1990000"})
+    private int depth; // 从第几行开始取这一页
+
+    @Param("100")
+    private int pageSize;
+
+    private Connection connection;
+    private PreparedStatement keyset;
+    private PreparedStatement offset;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS tbl_user");
+            statement.execute("CREATE TABLE tbl_user (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "last_name VARCHAR(50), email VARCHAR(100))");
+            statement.execute("INSERT INTO tbl_user (last_name, email) "
+                    + "SELECT 'user' || X, 'user' || X || '@zxin.com' FROM SYSTEM_RANGE(1, " + rows + ")");
+        }
+        keyset = connection.prepareStatement(KEYSET_SQL);
+        offset = connection.prepareStatement(OFFSET_SQL);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE tbl_user");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void keyset(Blackhole bh) throws SQLException {
+        // id 从 1 连续自增, 第 depth 行之后的一页就是 id > depth (实际由上一页的令牌给出)
+        keyset.setInt(1, depth);
+        keyset.setInt(2, pageSize);
+        consume(keyset, bh);
+    }
+
+    @Benchmark
+    public void offset(Blackhole bh) throws SQLException {
+        offset.setInt(1, pageSize);
+        offset.setInt(2, depth);
+        consume(offset, bh);
+    }
+
+    private static void consume(PreparedStatement statement, Blackhole bh) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getInt(1));
+                bh.consume(rs.getString(2));
+                bh.consume(rs.getString(3));
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.zxin.benchmark;
+
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.gateway.filter.LoginFilter;
+import com.zxin.token.PublicPaths;
+import com.zxin.token.TokenProperties;
+import com.zxin.token.TokenVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+// LoginFilter 每个请求的开销
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginFilterBenchmark {
+
+    private LoginFilter loginFilter;
+    private TokenVerifier tokenVerifier;
+    private String token;
+    private RequestContext protectedRequest;
+    private RequestContext publicRequest;
+
+    @Setup
+    public void setup() {
+        TokenProperties prop = new TokenProperties();
+        prop.setKeys(Collections.singletonMap("k1", "benchmark-secret-benchmark-secret"));
+        prop.setPublicPaths(Collections.singletonList("/consumer-demo/public/**"));
+        tokenVerifier = new TokenVerifier(prop.getKeys(), prop.getCacheMaximumSize());
+        loginFilter = new LoginFilter(tokenVerifier, new PublicPaths(prop.getPublicPaths()));
+        token = tokenVerifier.sign("k1", "10086", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 3600);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/consumer-demo/consumer/1");
+        request.setParameter("access-token", token);
+        protectedRequest = newContext(request);
+        publicRequest = newContext(new MockHttpServletRequest("GET", "/consumer-demo/public/ping"));
+    }
+
+    // 带 token 的请求, token 已经在缓存里
+    @Benchmark
+    public Object cachedToken() throws Exception {
+        RequestContext.testSetCurrentContext(protectedRequest);
+        return loginFilter.shouldFilter() ? loginFilter.run() : null;
+    }
+
+    // 公开路径, 只做路径匹配
+    @Benchmark
+    public boolean publicPath() {
+        RequestContext.testSetCurrentContext(publicRequest);
+        return loginFilter.shouldFilter();
+    }
+
+    // 不走缓存, 每次都算签名
+    @Benchmark
+    public Long verifySignature() {
+        return tokenVerifier.verifySignature(token, System.currentTimeMillis());
+    }
+
+    private static RequestContext newContext(MockHttpServletRequest request) {
+        RequestContext ctx = new RequestContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+        return ctx;
+    }
+}
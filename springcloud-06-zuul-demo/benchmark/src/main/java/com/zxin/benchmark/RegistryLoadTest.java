@@ -0,0 +1,240 @@
+package com.zxin.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Eureka 注册中心压测: 模拟大量实例注册, 按固定间隔续约, 最后下线, 统计每种请求的吞吐和延时
+// 配了 peer.url 时还会测注册事件复制到另一台要多久
+// 不是 JMH 基准, 直接运行 (参数都是系统属性, 括号里是默认值):
+//   java -Deureka.url=http://127.0.0.1:10086/eureka (同左) -Dpeer.url=http://127.0.0.1:10087/eureka (不测复制)
+//        -Dinstances=2000 -Dapps=20 -Drenew.interval=5 (秒) -Dduration=60 (秒) -Dthreads=64
+//        -cp target/benchmarks.jar com.zxin.benchmark.RegistryLoadTest
+public class RegistryLoadTest {
+
+    private static final String APP_PREFIX = "LOAD-TEST-";
+
+    private final String eurekaUrl;
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Histogram registerLatency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(30), 3);
+    private final Histogram renewLatency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(30), 3);
+    private final Histogram cancelLatency = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(30), 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder reRegisters = new LongAdder(); // 续约返回 404 (租约已过期被剔除) 后重新注册的次数
+
+    public RegistryLoadTest(String eurekaUrl, int threads) {
+        this.eurekaUrl = eurekaUrl;
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(1000)
+                .setSocketTimeout(10000)
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setMaxConnTotal(threads * 2)
+                .setMaxConnPerRoute(threads * 2)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String eurekaUrl = System.getProperty("eureka.url", "http://127.0.0.1:10086/eureka");
+        String peerUrl = System.getProperty("peer.url");
+        int instances = Integer.getInteger("instances", 2000);
+        int apps = Integer.getInteger("apps", 20);
+        int renewInterval = Integer.getInteger("renew.interval", 5);
+        int duration = Integer.getInteger("duration", 60);
+        int threads = Integer.getInteger("threads", 64);
+
+        RegistryLoadTest test = new RegistryLoadTest(eurekaUrl, threads);
+        List<Instance> all = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            all.add(new Instance(APP_PREFIX + (i % apps), String.format("load-test-%05d", i), renewInterval));
+        }
+        try {
+            test.run(all, peerUrl, renewInterval, duration, threads);
+        } finally {
+            test.httpClient.close();
+        }
+    }
+
+    private void run(List<Instance> instances, String peerUrl, int renewInterval, int duration, int threads)
+            throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+
+        // 1. 注册
+        long start = System.nanoTime();
+        for (Instance instance : instances) {
+            workers.execute(() -> register(instance));
+        }
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.MINUTES);
+        report("register", registerLatency, System.nanoTime() - start);
+
+        // 2. 复制延时: 另一台上看到全部实例用了多久 (从注册结束开始算)
+        if (peerUrl != null) {
+            long lag = waitForReplication(peerUrl, instances.size(), TimeUnit.SECONDS.toNanos(60));
+            System.out.println(lag < 0 ? "replication: peer did not see all instances within 60s"
+                    : String.format("replication: peer saw all %d instances after %d ms",
+                    instances.size(), TimeUnit.NANOSECONDS.toMillis(lag)));
+        }
+
+        // 3. 续约: 每个实例每 renewInterval 秒一次, 开始时间打散, 跑 duration 秒
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(threads);
+        long periodMillis = TimeUnit.SECONDS.toMillis(renewInterval);
+        for (Instance instance : instances) {
+            long offset = ThreadLocalRandom.current().nextLong(periodMillis);
+            scheduler.scheduleAtFixedRate(() -> renew(instance), offset, periodMillis, TimeUnit.MILLISECONDS);
+        }
+        start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(duration);
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.SECONDS.toNanos(10), deadline - now)); // 每 10s 打印一次进度
+            System.out.printf("  %3ds renew: %d total, p99 %.2f ms, errors %d%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), renewLatency.getTotalCount(),
+                    renewLatency.getValueAtPercentile(99) / 1000.0, errors.sum());
+        }
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        report("renew", renewLatency, System.nanoTime() - start);
+        System.out.printf("renew: expected %.0f/s (%d instances / %ds), re-registered %d%n",
+                (double) instances.size() / renewInterval, instances.size(), renewInterval, reRegisters.sum());
+
+        // 4. 下线
+        workers = Executors.newFixedThreadPool(threads);
+        start = System.nanoTime();
+        for (Instance instance : instances) {
+            workers.execute(() -> cancel(instance));
+        }
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.MINUTES);
+        report("cancel", cancelLatency, System.nanoTime() - start);
+        System.out.println("errors: " + errors.sum());
+    }
+
+    private void register(Instance instance) {
+        HttpPost post = new HttpPost(eurekaUrl + "/apps/" + instance.app);
+        post.setEntity(new StringEntity(instance.json, ContentType.APPLICATION_JSON));
+        execute(post, registerLatency); // 成功返回 204
+    }
+
+    private void renew(Instance instance) {
+        HttpPut put = new HttpPut(eurekaUrl + "/apps/" + instance.app + "/" + instance.id
+                + "?status=UP&lastDirtyTimestamp=" + instance.lastDirtyTimestamp);
+        if (execute(put, renewLatency) == 404) {
+            reRegisters.increment();
+            register(instance);
+        }
+    }
+
+    private void cancel(Instance instance) {
+        execute(new HttpDelete(eurekaUrl + "/apps/" + instance.app + "/" + instance.id), cancelLatency);
+    }
+
+    // 返回状态码, 出错返回 -1; 2xx 和 404 之外的都算错误
+    private int execute(HttpUriRequest request, Histogram latency) {
+        long start = System.nanoTime();
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            EntityUtils.consume(response.getEntity());
+            latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            int status = response.getStatusLine().getStatusCode();
+            if (status >= 300 && status != 404) {
+                errors.increment();
+            }
+            return status;
+        } catch (IOException e) {
+            errors.increment();
+            return -1;
+        }
+    }
+
+    private long waitForReplication(String peerUrl, int expected, long timeoutNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < timeoutNanos) {
+            if (countLoadTestInstances(peerUrl) >= expected) {
+                return System.nanoTime() - start;
+            }
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        return -1;
+    }
+
+    // 查另一台的 /apps, 和客户端拉到的一样 (包括它的响应缓存的延时)
+    private int countLoadTestInstances(String peerUrl) {
+        HttpGet get = new HttpGet(peerUrl + "/apps");
+        get.setHeader("Accept", "application/json");
+        try (CloseableHttpResponse response = httpClient.execute(get)) {
+            JsonNode applications = objectMapper.readTree(EntityUtils.toString(response.getEntity()))
+                    .path("applications").path("application");
+            int count = 0;
+            for (JsonNode application : applications) {
+                if (application.path("name").asText().startsWith(APP_PREFIX)) {
+                    JsonNode instances = application.path("instance");
+                    count += instances.isArray() ? instances.size() : 1;
+                }
+            }
+            return count;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void report(String name, Histogram latency, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%s: %d requests in %.1fs = %.0f/s, latency ms p50 %.2f p99 %.2f p99.9 %.2f max %.2f%n",
+                name, latency.getTotalCount(), seconds, latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, latency.getMaxValue() / 1000.0);
+    }
+
+    // 模拟的一个服务实例
+    private static class Instance {
+        final String app;
+        final String id;
+        final long lastDirtyTimestamp = System.currentTimeMillis();
+        final String json;
+
+        Instance(String app, String id, int renewInterval) {
+            this.app = app;
+            this.id = id;
+            // 和 Eureka 客户端注册时发的 JSON 一样, 只保留必填的字段
+            this.json = "{\"instance\":{"
+                    + "\"instanceId\":\"" + id + "\","
+                    + "\"hostName\":\"" + id + ".load.test\","
+                    + "\"app\":\"" + app + "\","
+                    + "\"ipAddr\":\"127.0.0.1\","
+                    + "\"vipAddress\":\"" + app.toLowerCase() + "\","
+                    + "\"status\":\"UP\","
+                    + "\"port\":{\"$\":8080,\"@enabled\":\"true\"},"
+                    + "\"lastDirtyTimestamp\":\"" + lastDirtyTimestamp + "\","
+                    + "\"leaseInfo\":{\"renewalIntervalInSecs\":" + renewInterval
+                    + ",\"durationInSecs\":" + renewInterval * 3 + "},"
+                    + "\"dataCenterInfo\":{\"@class\":\"com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo\","
+                    + "\"name\":\"MyOwn\"}}}";
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.zxin.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 本地的 user-service 桩: GET /user/{id} 和 GET /user?ids= 返回固定的 JSON, 用来测调用方自己的开销
+public class StubUserServer implements Closeable {
+
+    static final String USER_JSON = "{\"id\":1,\"lastName\":\"zxin\",\"email\":\"zxin@example.com\"}";
+
+    private static final byte[] USER = USER_JSON.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USERS = ("[" + USER_JSON + "]").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    public StubUserServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/user", exchange -> {
+            byte[] body = exchange.getRequestURI().getQuery() == null ? USER : USERS;
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
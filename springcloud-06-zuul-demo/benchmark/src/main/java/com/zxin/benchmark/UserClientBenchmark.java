@@ -0,0 +1,72 @@
+package com.zxin.benchmark;
+
+import com.zxin.consumerdemogood.client.UserClient;
+import com.zxin.consumerdemogood.pojo.User;
+import feign.Feign;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// 同一个本地桩服务, 比较 RestTemplate 和 Feign UserClient 的调用开销 (不经过 Eureka/Ribbon)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserClientBenchmark {
+
+    private StubUserServer server;
+    private RestTemplate restTemplate;
+    private String userUrl;
+    private UserClient userClient;
+
+    @Setup
+    public void setup() throws Exception {
+        server = new StubUserServer();
+        restTemplate = new RestTemplate(); // 和 consumer 里一样, 底层是 JDK 的 URLConnection
+        userUrl = server.baseUrl() + "/user/{id}";
+
+        // 和 Spring Cloud 里 Feign 的默认配置一样: SpringMvcContract + HttpMessageConverters
+        ObjectFactory<HttpMessageConverters> converters =
+                () -> new HttpMessageConverters(new MappingJackson2HttpMessageConverter());
+        userClient = Feign.builder()
+                .contract(new SpringMvcContract())
+                .encoder(new SpringEncoder(converters))
+                .decoder(new ResponseEntityDecoder(new SpringDecoder(converters)))
+                .target(UserClient.class, server.baseUrl());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public User restTemplate() {
+        return restTemplate.getForObject(userUrl, User.class, 1);
+    }
+
+    @Benchmark
+    public User feign() {
+        return userClient.queryById(1);
+    }
+}
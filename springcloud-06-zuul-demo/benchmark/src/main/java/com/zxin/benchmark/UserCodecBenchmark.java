@@ -0,0 +1,83 @@
+package com.zxin.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.zxin.consumerdemogood.pojo.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 服务之间的编码 (binary-codec.type): JSON / Smile / CBOR 每次调用的序列化和反序列化耗时
+// users=1 相当于 GET /user/{id}, users=100 相当于一次合并后的 GET /user?ids=...
+// 每种编码的字节数在 setup 时打印出来
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserCodecBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    private String codec;
+
+    @Param({"1", "100"})
+    private int users;
+
+    private ObjectMapper objectMapper;
+    private JavaType listType;
+    private List<User> list;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper(factory(codec));
+        listType = objectMapper.getTypeFactory().constructCollectionType(List.class, User.class);
+        list = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setLastName("user" + i);
+            user.setEmail("user" + i + "@zxin.com");
+            list.add(user);
+        }
+        encoded = objectMapper.writeValueAsBytes(list);
+        System.out.printf("%n%s, %d users: %d bytes%n", codec, users, encoded.length);
+    }
+
+    private static JsonFactory factory(String codec) {
+        switch (codec) {
+            case "SMILE":
+                return new SmileFactory();
+            case "CBOR":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public List<User> deserialize() throws Exception {
+        return objectMapper.readValue(encoded, listType);
+    }
+}
@@ -0,0 +1,47 @@
+package com.zxin.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zxin.consumerdemogood.pojo.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// User 的 JSON 序列化/反序列化
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private User user;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        json = StubUserServer.USER_JSON.getBytes(StandardCharsets.UTF_8);
+        user = objectMapper.readValue(json, User.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User deserialize() throws Exception {
+        return objectMapper.readValue(json, User.class);
+    }
+}
@@ -2,16 +2,27 @@ package com.zxin.consumerdemogood;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.reactive.function.client.WebClient;
 
 @SpringBootApplication
 @EnableFeignClients
 @EnableDiscoveryClient
+@EnableCircuitBreaker // 开启 @HystrixCommand/@HystrixCollapser 注解
 public class ConsumerDemoGood4Application {
 
 	public static void main(String[] args) {
 		SpringApplication.run(ConsumerDemoGood4Application.class, args);
 	}
 
+	@Bean
+	@LoadBalanced // WebClient 走 Ribbon 负载均衡, 给异步的 AsyncUserClient 用
+	public WebClient.Builder webClientBuilder(){
+		return WebClient.builder();
+	}
+
 }
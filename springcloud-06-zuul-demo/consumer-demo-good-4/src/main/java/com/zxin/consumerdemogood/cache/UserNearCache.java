@@ -0,0 +1,117 @@
+package com.zxin.consumerdemogood.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import com.zxin.consumerdemogood.client.UserFeignClientFallback;
+import com.zxin.consumerdemogood.config.NearCacheProperties;
+import com.zxin.consumerdemogood.pojo.User;
+import com.zxin.consumerdemogood.service.UserCollapseService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 调用方的两级缓存:
+// 一级 fresh: 超过 soft-ttl 先返回旧值并在后台刷新, 超过 hard-ttl 就过期, 必须重新查
+// 二级 lastKnown: 保存最后一次查到的真实值, user-service 熔断/超时时拿它代替"未知用户"
+public class UserNearCache {
+
+    private final UserCollapseService userCollapseService;
+    private final UserFeignClientFallback fallback;
+    private final ExecutorService refreshExecutor;
+    private final Cache<Integer, User> lastKnown;
+    private final LoadingCache<Integer, User> fresh;
+
+    public UserNearCache(NearCacheProperties prop, UserCollapseService userCollapseService,
+                         UserFeignClientFallback fallback) {
+        this.userCollapseService = userCollapseService;
+        this.fallback = fallback;
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 刷新是阻塞的远程调用, 不要放到公共的 ForkJoinPool 里
+        this.refreshExecutor = Executors.newFixedThreadPool(prop.getRefreshThreads(), r -> {
+            Thread thread = new Thread(r, "user-near-cache-refresh-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(prop.getStaleMaximumSize())
+                .expireAfterWrite(prop.getStaleTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.fresh = Caffeine.newBuilder()
+                .maximumSize(prop.getMaximumSize())
+                .refreshAfterWrite(prop.getSoftTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .expireAfterWrite(prop.getHardTtl().toMillis(), TimeUnit.MILLISECONDS)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(new CacheLoader<Integer, User>() {
+                    @Override
+                    public User load(Integer id) {
+                        return loadRemote(id); // 返回 null 就不进缓存
+                    }
+
+                    @Override
+                    public User reload(Integer id, User oldUser) {
+                        User user = loadRemote(id);
+                        if (user == null) {
+                            // 抛异常 Caffeine 会保留旧值, 直到 hard-ttl 过期
+                            throw new IllegalStateException("user-service 暂不可用, 保留旧值 id=" + id);
+                        }
+                        return user;
+                    }
+                });
+    }
+
+    public User queryById(Integer id) {
+        User user = fresh.get(id);
+        if (user != null) {
+            return user;
+        }
+        return queryStale(id);
+    }
+
+    // 只查一级缓存, 不触发远程调用 (给异步的查询用)
+    public User getIfPresent(Integer id) {
+        return fresh.getIfPresent(id);
+    }
+
+    // 异步查询拿到的真实值也放进两级缓存
+    public void put(User user) {
+        if (user == null || user.getId() == null || UserFeignClientFallback.isPlaceholder(user)) {
+            return;
+        }
+        fresh.put(user.getId(), user);
+        lastKnown.put(user.getId(), user);
+    }
+
+    // 远程没拿到真实值: 先用最后一次的值, 都没有再用"未知用户"
+    public User queryStale(Integer id) {
+        User stale = lastKnown.getIfPresent(id);
+        return stale != null ? stale : fallback.queryById(id);
+    }
+
+    public LoadingCache<Integer, User> getFreshCache() {
+        return fresh;
+    }
+
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private User loadRemote(Integer id) {
+        User user;
+        try {
+            user = userCollapseService.queryById(id);
+        } catch (HystrixRuntimeException e) {
+            return null; // 熔断/超时, 交给上层兜底
+        }
+        if (user == null || UserFeignClientFallback.isPlaceholder(user)) {
+            return null; // 降级的占位用户不缓存
+        }
+        lastKnown.put(id, user);
+        return user;
+    }
+}
@@ -4,6 +4,9 @@ import com.zxin.consumerdemogood.pojo.User;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 // Feign的配置  底层使用的是动态代理
 @FeignClient(value = "user-service-good-4", fallback = UserFeignClientFallback.class)  // 服务的名称
@@ -11,4 +14,8 @@ public interface UserClient {
 
     @GetMapping("user/{id}")
     User queryById(@PathVariable("id") Integer id);
+
+    // 批量查询, 一次请求拿到多个用户 (GET user?ids=1&ids=2...)
+    @GetMapping("user")
+    List<User> queryByIds(@RequestParam("ids") List<Integer> ids);
 }
@@ -3,13 +3,36 @@ package com.zxin.consumerdemogood.client;
 import com.zxin.consumerdemogood.pojo.User;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class UserFeignClientFallback implements UserClient  {
+
+    public static final String UNKNOWN_USER_NAME = "未知用户!";
+
     // 写熔断的配置逻辑
     @Override
     public User queryById(Integer id) {
         User user = new User();
-        user.setLastName("未知用户!");
+        user.setLastName(UNKNOWN_USER_NAME);
         return user;
     }
+
+    // 批量的降级: 每个请求的id都返回一个占位用户，保证调用方按id能对上
+    @Override
+    public List<User> queryByIds(List<Integer> ids) {
+        List<User> users = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            User user = queryById(id);
+            user.setId(id);
+            users.add(user);
+        }
+        return users;
+    }
+
+    // 是否是降级返回的占位用户 (占位用户不能进缓存)
+    public static boolean isPlaceholder(User user) {
+        return UNKNOWN_USER_NAME.equals(user.getLastName()) && user.getEmail() == null;
+    }
 }
@@ -0,0 +1,20 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.http.MediaType;
+
+// 调 user-service 时用的编码, 通过 Accept 请求头告诉服务端
+public enum BinaryCodec {
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(new MediaType("application", "cbor"));
+
+    private final MediaType mediaType;
+
+    BinaryCodec(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,27 @@
+package com.zxin.consumerdemogood.config;
+
+import feign.RequestInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+// Feign 调 user-service 时用 binary-codec.type 的编码
+// 默认的 SpringDecoder 用的是 Spring MVC 的转换器, classpath 上有 jackson-dataformat-smile/cbor 时已经包含它们,
+// 会按响应的 Content-Type 选转换器, 所以这里只需要在 Accept 里把二进制编码排在前面
+@Configuration
+@EnableConfigurationProperties(BinaryCodecProperties.class)
+public class FeignCodecConfig {
+
+    // JSON 排在后面 (q=0.5), 服务端不支持二进制编码时退回 JSON
+    @Bean
+    public RequestInterceptor binaryCodecAcceptInterceptor(BinaryCodecProperties prop) {
+        String accept = prop.getType().getMediaType() + ", " + MediaType.APPLICATION_JSON_VALUE + ";q=0.5";
+        return template -> {
+            if (prop.getType() != BinaryCodec.JSON && !template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, accept);
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.zxin.consumerdemogood.config;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import feign.hystrix.SetterFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FeignHystrixConfig {
+
+    // 默认一个 Feign 客户端的所有方法共用一个线程池 (key 是服务名), 慢的方法会把快的方法的线程占满
+    // 这里每个方法一个 command key 和线程池 key, 如 UserClient-queryById, 池的大小和隔离方式在 yml 的 hystrix.* 里配
+    // 只按方法名区分, 客户端里不要有重载的方法
+    @Bean
+    public SetterFactory feignHystrixSetterFactory() {
+        return (target, method) -> {
+            String key = target.type().getSimpleName() + "-" + method.getName();
+            return HystrixCommand.Setter
+                    .withGroupKey(HystrixCommandGroupKey.Factory.asKey(target.name()))
+                    .andCommandKey(HystrixCommandKey.Factory.asKey(key))
+                    .andThreadPoolKey(HystrixThreadPoolKey.Factory.asKey(key));
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.zxin.consumerdemogood.config;
+
+import com.zxin.consumerdemogood.loadbalancer.LatencyAwareRibbonConfiguration;
+import com.zxin.consumerdemogood.loadbalancer.LatencyTrackingClient;
+import com.zxin.consumerdemogood.loadbalancer.ServerLatencyTracker;
+import feign.Client;
+import feign.okhttp.OkHttpClient;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.netflix.ribbon.RibbonClient;
+import org.springframework.cloud.netflix.ribbon.SpringClientFactory;
+import org.springframework.cloud.openfeign.ribbon.CachingSpringLoadBalancerFactory;
+import org.springframework.cloud.openfeign.ribbon.LoadBalancerFeignClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LatencyRuleProperties.class)
+@RibbonClient(name = "user-service-good-4", configuration = LatencyAwareRibbonConfiguration.class)
+public class LatencyRuleConfig {
+
+    @Bean
+    public ServerLatencyTracker serverLatencyTracker(LatencyRuleProperties prop) {
+        return new ServerLatencyTracker(prop.getDecayTime().toNanos(), prop.getFailurePenalty().toNanos());
+    }
+
+    // 代替默认的 feignClient: 还是 Ribbon 选实例, 只是在发请求的地方记录每个实例的耗时
+    // 请求由 OkHttpConfig 里带连接池的 OkHttpClient 发出
+    @Bean
+    public Client feignClient(CachingSpringLoadBalancerFactory cachingFactory, SpringClientFactory clientFactory,
+                              ServerLatencyTracker serverLatencyTracker, okhttp3.OkHttpClient okHttpClient) {
+        Client delegate = new LatencyTrackingClient(new OkHttpClient(okHttpClient), serverLatencyTracker);
+        return new LoadBalancerFeignClient(delegate, cachingFactory, clientFactory);
+    }
+}
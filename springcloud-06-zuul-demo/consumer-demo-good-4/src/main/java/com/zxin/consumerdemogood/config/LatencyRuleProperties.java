@@ -0,0 +1,27 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "latency-rule")  // 按响应时间选实例的负载均衡配置
+public class LatencyRuleProperties {
+    Duration decayTime = Duration.ofSeconds(10);      // EWMA 的衰减时间, 越小对变慢越敏感
+    Duration failurePenalty = Duration.ofSeconds(1);  // 调用失败时按这个时长记一次响应时间
+
+    public Duration getDecayTime() {
+        return decayTime;
+    }
+
+    public void setDecayTime(Duration decayTime) {
+        this.decayTime = decayTime;
+    }
+
+    public Duration getFailurePenalty() {
+        return failurePenalty;
+    }
+
+    public void setFailurePenalty(Duration failurePenalty) {
+        this.failurePenalty = failurePenalty;
+    }
+}
@@ -0,0 +1,24 @@
+package com.zxin.consumerdemogood.config;
+
+import com.zxin.consumerdemogood.cache.UserNearCache;
+import com.zxin.consumerdemogood.client.UserFeignClientFallback;
+import com.zxin.consumerdemogood.service.UserCollapseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(NearCacheProperties.class)
+public class NearCacheConfig {
+
+    @Bean // 关闭时会调用 close(), 停掉后台刷新线程
+    public UserNearCache userNearCache(NearCacheProperties prop, UserCollapseService userCollapseService,
+                                       UserFeignClientFallback fallback, MeterRegistry registry) {
+        UserNearCache nearCache = new UserNearCache(prop, userCollapseService, fallback);
+        // 命中率等指标: /actuator/metrics/cache.gets?tag=cache:userNearCache
+        CaffeineCacheMetrics.monitor(registry, nearCache.getFreshCache(), "userNearCache");
+        return nearCache;
+    }
+}
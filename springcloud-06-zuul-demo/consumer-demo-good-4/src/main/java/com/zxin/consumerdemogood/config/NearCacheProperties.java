@@ -0,0 +1,63 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "near-cache")  // 调用方本地缓存的配置
+public class NearCacheProperties {
+    Duration softTtl = Duration.ofSeconds(30);   // 超过之后先返回旧值, 后台异步刷新
+    Duration hardTtl = Duration.ofMinutes(5);    // 超过之后必须同步重新查询
+    long maximumSize = 10000;
+    Duration staleTtl = Duration.ofHours(1);     // 熔断时最多用多久之前的旧值
+    long staleMaximumSize = 100000;
+    int refreshThreads = 4;                      // 后台刷新的线程数
+
+    public Duration getSoftTtl() {
+        return softTtl;
+    }
+
+    public void setSoftTtl(Duration softTtl) {
+        this.softTtl = softTtl;
+    }
+
+    public Duration getHardTtl() {
+        return hardTtl;
+    }
+
+    public void setHardTtl(Duration hardTtl) {
+        this.hardTtl = hardTtl;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public Duration getStaleTtl() {
+        return staleTtl;
+    }
+
+    public void setStaleTtl(Duration staleTtl) {
+        this.staleTtl = staleTtl;
+    }
+
+    public long getStaleMaximumSize() {
+        return staleMaximumSize;
+    }
+
+    public void setStaleMaximumSize(long staleMaximumSize) {
+        this.staleMaximumSize = staleMaximumSize;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+}
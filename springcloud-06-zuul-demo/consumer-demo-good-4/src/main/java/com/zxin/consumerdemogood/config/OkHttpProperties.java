@@ -0,0 +1,28 @@
+package com.zxin.consumerdemogood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Feign 用 OkHttp 发请求时的配置, 连接池的大小和空闲时间用 feign.httpclient.max-connections / time-to-live
+@ConfigurationProperties(prefix = "feign.okhttp")
+public class OkHttpProperties {
+    boolean http2 = false;                         // 用 HTTP/2 (h2c, 不走升级直接发) 连服务端, 服务端要开 server.http2.enabled
+    Duration readTimeout = Duration.ofSeconds(1);  // 和 ribbon.ReadTimeout 一致, 否则 Feign 每次调用都要复制一个 OkHttpClient
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+}
@@ -1,13 +1,25 @@
 package com.zxin.consumerdemogood.controller;
 
+import com.zxin.consumerdemogood.cache.UserNearCache;
+import com.zxin.consumerdemogood.client.AsyncUserClient;
 import com.zxin.consumerdemogood.client.UserClient;
+import com.zxin.consumerdemogood.client.UserFeignClientFallback;
 import com.zxin.consumerdemogood.pojo.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("consumer")
 public class ConsumerController {
@@ -15,8 +27,47 @@ public class ConsumerController {
     @Autowired
     private UserClient userClient;
 
+    @Autowired
+    private UserNearCache userNearCache;
+
+    @Autowired
+    private AsyncUserClient asyncUserClient;
+
+    @Value("${consumer.shared-cache-max-age:30s}")
+    private Duration sharedCacheMaxAge; // 网关最多缓存多久 (Cache-Control: public, max-age)
+
     @GetMapping("{id}")
-    public User queryById(@PathVariable("id") Integer id){
-        return userClient.queryById(id);
+    public ResponseEntity<User> queryById(@PathVariable("id") Integer id){
+        // 先查本地缓存, 没命中的单个查询会被合并成批量查询
+        User user = userNearCache.queryById(id);
+        if (UserFeignClientFallback.isPlaceholder(user)) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(user); // 降级的"未知用户"不能被网关缓存
+        }
+        // 用户信息不区分是谁来查的, 标成 public, 网关才会让所有 access-token 共用一份缓存
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(sharedCacheMaxAge.getSeconds(), TimeUnit.SECONDS).cachePublic())
+                .body(user);
+    }
+
+    // 异步版本: 本地缓存命中直接返回, 没命中用 WebClient 查, 等待期间不占 Tomcat 线程
+    // 超时或者出错时和同步版本一样, 先用旧值, 没有旧值再用"未知用户"
+    @GetMapping("async/{id}")
+    public CompletableFuture<User> queryByIdAsync(@PathVariable("id") Integer id){
+        User cached = userNearCache.getIfPresent(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return asyncUserClient.queryById(id)
+                .thenApply(user -> {
+                    userNearCache.put(user);
+                    return user;
+                })
+                .exceptionally(e -> userNearCache.queryStale(id));
+    }
+
+    // 批量查询: GET /consumer?ids=1,2,3  只走一次远程调用
+    @GetMapping
+    public List<User> queryByIds(@RequestParam("ids") List<Integer> ids){
+        return userClient.queryByIds(ids);
     }
 }
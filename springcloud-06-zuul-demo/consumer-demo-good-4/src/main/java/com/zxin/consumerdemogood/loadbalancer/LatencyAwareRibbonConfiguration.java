@@ -0,0 +1,14 @@
+package com.zxin.consumerdemogood.loadbalancer;
+
+import com.netflix.loadbalancer.IRule;
+import org.springframework.context.annotation.Bean;
+
+// user-service-good-4 的 Ribbon 配置, 由 @RibbonClient 注册到 Ribbon 自己的子容器里
+// 故意不加 @Configuration: 被主容器扫描到的话会对所有 Ribbon 客户端生效
+public class LatencyAwareRibbonConfiguration {
+
+    @Bean
+    public IRule ribbonRule(ServerLatencyTracker serverLatencyTracker) {
+        return new LatencyAwareRule(serverLatencyTracker); // tracker 来自主容器
+    }
+}
@@ -0,0 +1,70 @@
+package com.zxin.consumerdemogood.loadbalancer;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 代替默认的轮询: 随机挑两个可用实例(power of two choices), 选 ServerLatencyTracker 里代价小的那个
+// 某个实例变慢(GC 等)时, 它的代价马上变大, 流量就转到其它实例上
+public class LatencyAwareRule extends AbstractLoadBalancerRule {
+
+    private final ServerLatencyTracker tracker;
+
+    public LatencyAwareRule(ServerLatencyTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+
+    // 服务列表更新时 (Eureka 里实例上下线), 把不在新列表里的实例从 tracker 里清掉
+    @Override
+    public void setLoadBalancer(ILoadBalancer lb) {
+        super.setLoadBalancer(lb);
+        if (lb instanceof BaseLoadBalancer) {
+            ((BaseLoadBalancer) lb).addServerListChangeListener((oldList, newList) -> {
+                Set<String> removed = new HashSet<>();
+                for (Server server : oldList) {
+                    removed.add(server.getHostPort());
+                }
+                for (Server server : newList) {
+                    removed.remove(server.getHostPort());
+                }
+                tracker.remove(removed);
+            });
+        }
+    }
+
+    @Override
+    public Server choose(Object key) {
+        ILoadBalancer lb = getLoadBalancer();
+        if (lb == null) {
+            return null;
+        }
+        List<Server> servers = lb.getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return servers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(size);
+        int j = random.nextInt(size - 1);
+        if (j >= i) {
+            j++; // 保证两个不同
+        }
+        Server a = servers.get(i);
+        Server b = servers.get(j);
+        return tracker.cost(a.getHostPort()) <= tracker.cost(b.getHostPort()) ? a : b;
+    }
+}
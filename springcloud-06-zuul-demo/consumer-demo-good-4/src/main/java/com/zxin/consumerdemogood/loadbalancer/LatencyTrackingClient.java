@@ -0,0 +1,36 @@
+package com.zxin.consumerdemogood.loadbalancer;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+
+// 包在 Feign 真正发请求的 Client 外面, 这时 url 已经被 Ribbon 换成了具体实例的 host:port
+// 每次调用的耗时和结果都记到 ServerLatencyTracker
+public class LatencyTrackingClient implements Client {
+
+    private final Client delegate;
+    private final ServerLatencyTracker tracker;
+
+    public LatencyTrackingClient(Client delegate, ServerLatencyTracker tracker) {
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        URI uri = URI.create(request.url());
+        String hostPort = uri.getHost() + ":" + uri.getPort(); // 和 Server.getHostPort() 的格式一致
+        long start = tracker.begin(hostPort);
+        boolean success = false;
+        try {
+            Response response = delegate.execute(request, options);
+            success = response.status() < 500;
+            return response;
+        } finally {
+            tracker.end(hostPort, start, success);
+        }
+    }
+}
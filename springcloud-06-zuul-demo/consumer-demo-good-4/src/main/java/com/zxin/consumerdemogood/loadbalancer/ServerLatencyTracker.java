@@ -0,0 +1,83 @@
+package com.zxin.consumerdemogood.loadbalancer;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 记录每个实例(host:port)的响应时间 EWMA 和正在处理的请求数, 给 LatencyAwareRule 选实例用
+// 实例下线后由 LatencyAwareRule 调 remove 清掉, 实例换来换去 map 也不会一直变大
+public class ServerLatencyTracker {
+
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+
+    public ServerLatencyTracker(long decayNanos, long failurePenaltyNanos) {
+        this.decayNanos = decayNanos;
+        this.failurePenaltyNanos = failurePenaltyNanos;
+    }
+
+    // 请求发出前调用, 返回开始时间
+    public long begin(String hostPort) {
+        stats(hostPort).inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    // 请求结束后调用, 失败的请求至少按 failurePenalty 计
+    public void end(String hostPort, long startNanos, boolean success) {
+        long now = System.nanoTime();
+        long rtt = now - startNanos;
+        Stats s = stats.get(hostPort);
+        if (s == null) {
+            return; // 请求还没结束实例就下线了
+        }
+        s.inFlight.decrementAndGet();
+        s.observe(success ? rtt : Math.max(rtt, failurePenaltyNanos), now, decayNanos);
+    }
+
+    // 代价 = 响应时间 EWMA * (正在处理的请求数 + 1), 越小越好
+    // 没有数据的实例代价为 0, 新上线的实例会先被试一下
+    public double cost(String hostPort) {
+        Stats s = stats.get(hostPort);
+        if (s == null) {
+            return 0;
+        }
+        return s.ewma(System.nanoTime(), decayNanos) * (s.inFlight.get() + 1);
+    }
+
+    // 不在服务列表里的实例
+    public void remove(Collection<String> hostPorts) {
+        stats.keySet().removeAll(hostPorts);
+    }
+
+    int size() {
+        return stats.size();
+    }
+
+    private Stats stats(String hostPort) {
+        return stats.computeIfAbsent(hostPort, k -> new Stats());
+    }
+
+    static class Stats {
+        final AtomicInteger inFlight = new AtomicInteger();
+        private double ewma;      // 纳秒
+        private long stamp = System.nanoTime();
+
+        // 比当前值大的样本直接生效(变慢要马上反应), 比当前值小的按时间衰减慢慢拉下来
+        synchronized void observe(long rtt, long now, double decayNanos) {
+            if (rtt > ewma) {
+                ewma = rtt;
+            } else {
+                double w = Math.exp(-(now - stamp) / decayNanos);
+                ewma = ewma * w + rtt * (1 - w);
+            }
+            stamp = now;
+        }
+
+        // 读的时候也按空闲时间衰减, 被冷落的慢实例过一段时间会重新被试探
+        synchronized double ewma(long now, double decayNanos) {
+            return ewma * Math.exp(-(now - stamp) / decayNanos);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.zxin.consumerdemogood.service;
+
+import com.netflix.hystrix.HystrixCollapser.Scope;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCollapser;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import com.zxin.consumerdemogood.client.UserClient;
+import com.zxin.consumerdemogood.pojo.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class UserCollapseService {
+
+    @Autowired
+    private UserClient userClient;
+
+    // 请求合并: 时间窗口内(hystrix.collapser.userQueryById.*)的单个查询会被合并成一次 queryByIds 调用
+    // GLOBAL: 跨请求合并，不同的 /consumer/{id} 请求也能合并到一批
+    @HystrixCollapser(batchMethod = "queryByIds", collapserKey = "userQueryById", scope = Scope.GLOBAL)
+    public User queryById(Integer id) {
+        return null; // 不会被调用，由 Hystrix 代理到 queryByIds
+    }
+
+    // 批量方法: 返回结果的个数和顺序必须和 ids 一一对应
+    // 在自己的线程池里执行 (hystrix.threadpool.userQueryByIdsBatch), 不能配成信号量: 合并后的批次是在 Hystrix 的定时器线程上提交的, 信号量隔离会阻塞定时器线程
+    // 里面的 Feign 调用是远程调用, 也是线程隔离 (UserClient-queryByIds 的线程池)
+    @HystrixCommand(commandKey = "userQueryByIdsBatch", threadPoolKey = "userQueryByIdsBatch")
+    public List<User> queryByIds(List<Integer> ids) {
+        Map<Integer, User> userMap = new HashMap<>();
+        for (User user : userClient.queryByIds(ids)) {
+            userMap.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            users.add(userMap.get(id));
+        }
+        return users;
+    }
+}
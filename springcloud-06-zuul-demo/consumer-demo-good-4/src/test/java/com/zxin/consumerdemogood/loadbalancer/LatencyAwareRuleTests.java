@@ -0,0 +1,34 @@
+package com.zxin.consumerdemogood.loadbalancer;
+
+import com.netflix.loadbalancer.BaseLoadBalancer;
+import com.netflix.loadbalancer.Server;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyAwareRuleTests {
+
+    private final ServerLatencyTracker tracker =
+            new ServerLatencyTracker(TimeUnit.SECONDS.toNanos(10), TimeUnit.SECONDS.toNanos(1));
+
+    @Test
+    public void removedServersAreForgotten() {
+        BaseLoadBalancer lb = new BaseLoadBalancer();
+        lb.setRule(new LatencyAwareRule(tracker));
+        Server a = new Server("10.0.0.1", 8081);
+        Server b = new Server("10.0.0.2", 8081);
+        lb.setServersList(Arrays.asList(a, b));
+        for (Server server : Arrays.asList(a, b)) {
+            tracker.end(server.getHostPort(), tracker.begin(server.getHostPort()), true);
+        }
+        assertEquals(2, tracker.size());
+
+        lb.setServersList(Collections.singletonList(b)); // a 下线
+        assertEquals(1, tracker.size());
+        assertEquals(0, tracker.cost(a.getHostPort()), 0);
+    }
+}
@@ -0,0 +1,16 @@
+package com.zxin.gateway;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+
+// 非阻塞的网关: 和 gateway(Zuul 1) 的路由一样, 但底层是 Netty, 等待下游时不占线程
+@SpringBootApplication
+@EnableDiscoveryClient
+public class GatewayReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(GatewayReactiveApplication.class, args);
+	}
+
+}
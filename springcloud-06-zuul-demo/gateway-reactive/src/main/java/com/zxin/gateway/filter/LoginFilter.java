@@ -0,0 +1,52 @@
+package com.zxin.gateway.filter;
+
+import com.zxin.token.PublicPaths;
+import com.zxin.token.TokenVerifier;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+// Zuul 版 LoginFilter 的非阻塞实现, 对所有路由生效
+// 校验和公开路径都来自 gateway-token 模块, 和 Zuul 版一样: 签名、过期时间都在本地校验, 不会阻塞
+@Component
+public class LoginFilter implements GlobalFilter, Ordered {
+
+    private final TokenVerifier tokenVerifier;
+    private final PublicPaths publicPaths;
+
+    public LoginFilter(TokenVerifier tokenVerifier, PublicPaths publicPaths) {
+        this.tokenVerifier = tokenVerifier;
+        this.publicPaths = publicPaths;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        // 公开的路径不拦截
+        if (publicPaths.matches(request.getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        // 获取请求参数access-token
+        String token = request.getQueryParams().getFirst("access-token");
+        if (!StringUtils.hasText(token) || !tokenVerifier.verify(token)) {
+            // 不存在或者签名/过期时间校验不通过，则拦截, 返回403
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return response.setComplete();
+        }
+        return chain.filter(exchange);
+    }
+
+    // 在路由转发之前执行
+    @Override
+    public int getOrder() {
+        return -1;
+    }
+}
@@ -0,0 +1,16 @@
+package com.zxin.gateway;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class GatewayReactiveApplicationTests {
+
+	@Test
+	public void contextLoads() {
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.zxin.gateway.filter;
+
+import com.zxin.token.PublicPaths;
+import com.zxin.token.TokenVerifier;
+import org.junit.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoginFilterTests {
+
+    private final TokenVerifier tokenVerifier = new TokenVerifier(Collections.singletonMap("k1", "test-secret"), 100);
+    private final LoginFilter loginFilter = new LoginFilter(tokenVerifier,
+            new PublicPaths(Collections.singletonList("/consumer-demo/public/**")));
+    private final long expiresAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 3600;
+
+    @Test
+    public void unsignedTokenIsForbidden() {
+        MockServerWebExchange exchange = exchange("/consumer-demo/consumer/1?access-token=k1.10086." + expiresAt + ".bm90LXNpZ25lZA");
+        AtomicBoolean routed = new AtomicBoolean();
+
+        loginFilter.filter(exchange, chain(routed)).block();
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        assertFalse(routed.get());
+    }
+
+    @Test
+    public void signedTokenIsRouted() {
+        String token = tokenVerifier.sign("k1", "10086", expiresAt);
+        MockServerWebExchange exchange = exchange("/consumer-demo/consumer/1?access-token=" + token);
+        AtomicBoolean routed = new AtomicBoolean();
+
+        loginFilter.filter(exchange, chain(routed)).block();
+
+        assertTrue(routed.get());
+    }
+
+    @Test
+    public void publicPathNeedsNoToken() {
+        MockServerWebExchange exchange = exchange("/consumer-demo/public/ping");
+        AtomicBoolean routed = new AtomicBoolean();
+
+        loginFilter.filter(exchange, chain(routed)).block();
+
+        assertTrue(routed.get());
+    }
+
+    private static MockServerWebExchange exchange(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri).build());
+    }
+
+    private static GatewayFilterChain chain(AtomicBoolean routed) {
+        return exchange -> {
+            routed.set(true);
+            return Mono.empty();
+        };
+    }
+}
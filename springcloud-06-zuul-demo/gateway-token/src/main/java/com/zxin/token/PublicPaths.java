@@ -0,0 +1,46 @@
+package com.zxin.token;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 不需要登录的路径 (gateway.token.public-paths), 启动时预编译好
+public class PublicPaths {
+
+    private final List<String> paths;
+    private final List<PathPattern> patterns = new ArrayList<>();
+    // Zuul 拿到的是字符串路径, 直接按字符串匹配, 不用每个请求都 PathContainer.parsePath 一次 (AntPathMatcher 会缓存拆好的 pattern)
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    public PublicPaths(List<String> paths) {
+        this.paths = new ArrayList<>(paths);
+        PathPatternParser parser = new PathPatternParser();
+        for (String path : paths) {
+            patterns.add(parser.parse(path));
+            matcher.match(path, path); // 启动时就拆好放进缓存
+        }
+    }
+
+    public boolean matches(String path) {
+        for (String pattern : paths) {
+            if (matcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // WebFlux 的请求已经带着解析好的 PathContainer
+    public boolean matches(PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
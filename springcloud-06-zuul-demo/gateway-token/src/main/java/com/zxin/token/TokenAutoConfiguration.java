@@ -0,0 +1,21 @@
+package com.zxin.token;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 加了这个依赖的网关自动生效 (META-INF/spring.factories), 两个网关的 LoginFilter 用同一套校验和配置
+@Configuration
+@EnableConfigurationProperties(TokenProperties.class)
+public class TokenAutoConfiguration {
+
+    @Bean
+    public TokenVerifier tokenVerifier(TokenProperties prop) {
+        return new TokenVerifier(prop.getKeys(), prop.getCacheMaximumSize());
+    }
+
+    @Bean
+    public PublicPaths publicPaths(TokenProperties prop) {
+        return new PublicPaths(prop.getPublicPaths());
+    }
+}
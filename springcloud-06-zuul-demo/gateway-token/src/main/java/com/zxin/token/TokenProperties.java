@@ -0,0 +1,39 @@
+package com.zxin.token;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.token")  // 网关 token 校验的配置
+public class TokenProperties {
+    Map<String, String> keys = new LinkedHashMap<>();   // kid -> 签名密钥, 多个key方便轮换
+    List<String> publicPaths = new ArrayList<>();       // 不需要登录的路径, 例如 /consumer-demo/public/**
+    long cacheMaximumSize = 100000;                     // 已校验 token 的缓存个数
+
+    public Map<String, String> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Map<String, String> keys) {
+        this.keys = keys;
+    }
+
+    public List<String> getPublicPaths() {
+        return publicPaths;
+    }
+
+    public void setPublicPaths(List<String> publicPaths) {
+        this.publicPaths = publicPaths;
+    }
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    public void setCacheMaximumSize(long cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+    }
+}
@@ -0,0 +1,127 @@
+package com.zxin.token;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 本地校验 token, 不需要远程调用
+// token 格式: kid.subject.过期时间(秒).签名, 签名 = base64url(HmacSHA256(密钥[kid], "kid.subject.过期时间"))
+// 校验通过的 token 放进缓存, 缓存条目在 token 过期时一起过期, 命中缓存就不用再算签名
+public class TokenVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Map<String, ThreadLocal<Mac>> macs = new HashMap<>(); // Mac 不是线程安全的, 每个线程一个
+    private final Cache<String, Long> verified;                         // token -> 过期时间(ms)
+
+    public TokenVerifier(Map<String, String> keys, long cacheMaximumSize) {
+        for (Map.Entry<String, String> entry : keys.entrySet()) {
+            final SecretKeySpec key = new SecretKeySpec(entry.getValue().getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            macs.put(entry.getKey(), ThreadLocal.withInitial(() -> newMac(key)));
+        }
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String token, Long expiresAt, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public boolean verify(String token) {
+        long now = System.currentTimeMillis();
+        Long expiresAt = verified.getIfPresent(token);
+        if (expiresAt != null) {
+            return expiresAt > now;
+        }
+        expiresAt = verifySignature(token, now);
+        if (expiresAt == null) {
+            return false; // 校验失败的不缓存
+        }
+        verified.put(token, expiresAt);
+        return true;
+    }
+
+    // 校验签名和过期时间, 通过则返回过期时间(ms), 否则返回 null
+    public Long verifySignature(String token, long now) {
+        int sigStart = token.lastIndexOf('.');
+        int kidEnd = token.indexOf('.');
+        if (sigStart <= 0 || kidEnd == sigStart) {
+            return null;
+        }
+        int expStart = token.lastIndexOf('.', sigStart - 1);
+        if (expStart <= kidEnd) {
+            return null; // 缺少 subject
+        }
+        ThreadLocal<Mac> mac = macs.get(token.substring(0, kidEnd));
+        if (mac == null) {
+            return null; // 未知的 kid
+        }
+        long expiresAt;
+        try {
+            expiresAt = TimeUnit.SECONDS.toMillis(Long.parseLong(token.substring(expStart + 1, sigStart)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt <= now) {
+            return null; // 已过期
+        }
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(token.substring(sigStart + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        byte[] expected = mac.get().doFinal(token.substring(0, sigStart).getBytes(StandardCharsets.US_ASCII));
+        return MessageDigest.isEqual(expected, signature) ? expiresAt : null;
+    }
+
+    // token 里的 subject (用户), 只对 verify 通过的 token 有意义
+    public static String subject(String token) {
+        int expStart = token.lastIndexOf('.', token.lastIndexOf('.') - 1);
+        return token.substring(token.indexOf('.') + 1, expStart);
+    }
+
+    // 签发 token, 给登录服务/测试用
+    public String sign(String kid, String subject, long expiresAtSeconds) {
+        ThreadLocal<Mac> mac = macs.get(kid);
+        if (mac == null) {
+            throw new IllegalArgumentException("未知的 kid: " + kid);
+        }
+        String payload = kid + "." + subject + "." + expiresAtSeconds;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
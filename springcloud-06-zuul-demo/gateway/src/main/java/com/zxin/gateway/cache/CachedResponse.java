@@ -0,0 +1,58 @@
+package com.zxin.gateway.cache;
+
+import com.netflix.util.Pair;
+
+import java.util.List;
+
+// 缓存的一个响应: 状态码, 响应头, 响应体
+public class CachedResponse {
+
+    private final int status;
+    private final List<Pair<String, String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final long ttlNanos;
+    private final long createdAt = System.currentTimeMillis();
+
+    public CachedResponse(int status, List<Pair<String, String>> headers, byte[] body, String etag, long ttlNanos) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.ttlNanos = ttlNanos;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public List<Pair<String, String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getTtlNanos() {
+        return ttlNanos;
+    }
+
+    // 缓存了多久(秒), 用作 Age 响应头
+    public long getAgeSeconds() {
+        return (System.currentTimeMillis() - createdAt) / 1000;
+    }
+
+    // 大概占用的内存 (字节), 用来限制每个路由缓存的总大小
+    public int weight() {
+        int weight = 64 + body.length;
+        for (Pair<String, String> header : headers) {
+            weight += 32 + 2 * (header.first().length() + header.second().length());
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,73 @@
+package com.zxin.gateway.cache;
+
+import org.springframework.util.StringUtils;
+
+// Cache-Control / ETag 相关的小工具
+public final class HttpCaching {
+
+    private HttpCaching() {
+    }
+
+    // Cache-Control 里有没有某个指令, 例如 no-store
+    public static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+        for (String part : StringUtils.commaDelimitedListToStringArray(cacheControl)) {
+            String name = part.trim();
+            int eq = name.indexOf('=');
+            if (eq >= 0) {
+                name = name.substring(0, eq).trim();
+            }
+            if (name.equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // max-age / s-maxage 的秒数, 没有返回 -1 (s-maxage 是给共享缓存用的, 优先)
+    public static long maxAgeSeconds(String cacheControl) {
+        if (cacheControl == null) {
+            return -1;
+        }
+        long maxAge = -1;
+        for (String part : StringUtils.commaDelimitedListToStringArray(cacheControl)) {
+            String[] kv = part.trim().split("=", 2);
+            if (kv.length != 2) {
+                continue;
+            }
+            try {
+                long value = Long.parseLong(kv[1].trim().replace("\"", ""));
+                if (kv[0].trim().equalsIgnoreCase("s-maxage")) {
+                    return value;
+                }
+                if (kv[0].trim().equalsIgnoreCase("max-age")) {
+                    maxAge = value;
+                }
+            } catch (NumberFormatException e) {
+                // 忽略格式不对的指令
+            }
+        }
+        return maxAge;
+    }
+
+    // If-None-Match 里有没有这个 ETag (弱比较, 忽略 W/ 前缀)
+    public static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String target = weak(etag);
+        for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+            String value = candidate.trim();
+            if (value.equals("*") || weak(value).equals(target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,92 @@
+package com.zxin.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zxin.gateway.config.RoutePolicyProperties;
+
+import org.springframework.util.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 网关的 GET 响应缓存, 每个开启了缓存的路由一个 Caffeine 缓存, 按占用内存淘汰
+// key = 请求路径 + 查询参数 (去掉 access-token) + vary-headers 的值
+// 同一个资源所有用户共用一份缓存, 所以带 access-token 的请求只存源站标明可以共享的响应 (ResponseCachePostFilter)
+public class ResponseCache {
+
+    public static final String TOKEN_PARAM = "access-token";
+
+    private final Map<String, RoutePolicyProperties.Cache> configs = new HashMap<>();
+    private final Map<String, Cache<String, CachedResponse>> caches = new HashMap<>();
+
+    public ResponseCache(Map<String, RoutePolicyProperties.Route> routes) {
+        for (Map.Entry<String, RoutePolicyProperties.Route> entry : routes.entrySet()) {
+            RoutePolicyProperties.Cache config = entry.getValue().getCache();
+            if (config == null || !config.isEnabled()) {
+                continue;
+            }
+            configs.put(entry.getKey(), config);
+            caches.put(entry.getKey(), Caffeine.newBuilder()
+                    .maximumWeight(config.getMaxMemory().toBytes())
+                    .weigher((String key, CachedResponse response) -> key.length() * 2 + response.weight())
+                    .expireAfter(new Expiry<String, CachedResponse>() {
+                        @Override
+                        public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                            return response.getTtlNanos();
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                            return response.getTtlNanos();
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build());
+        }
+    }
+
+    // 路由没有开启缓存返回 null
+    public RoutePolicyProperties.Cache config(String routeId) {
+        return routeId == null ? null : configs.get(routeId);
+    }
+
+    public String key(String routeId, HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        String query = request.getQueryString();
+        if (query != null) {
+            char separator = '?';
+            for (String param : StringUtils.delimitedListToStringArray(query, "&")) {
+                if (param.equals(TOKEN_PARAM) || param.startsWith(TOKEN_PARAM + "=")) {
+                    continue;
+                }
+                key.append(separator).append(param);
+                separator = '&';
+            }
+        }
+        List<String> varyHeaders = configs.get(routeId).getVaryHeaders();
+        for (String header : varyHeaders) {
+            String value = request.getHeader(header);
+            key.append('\n').append(header).append(':').append(value == null ? "" : value);
+        }
+        return key.toString();
+    }
+
+    public CachedResponse get(String routeId, String key) {
+        Cache<String, CachedResponse> cache = caches.get(routeId);
+        return cache == null ? null : cache.getIfPresent(key);
+    }
+
+    public void put(String routeId, String key, CachedResponse response) {
+        Cache<String, CachedResponse> cache = caches.get(routeId);
+        if (cache != null) {
+            cache.put(key, response);
+        }
+    }
+}
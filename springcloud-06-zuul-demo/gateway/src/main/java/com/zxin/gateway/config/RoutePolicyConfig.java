@@ -0,0 +1,22 @@
+package com.zxin.gateway.config;
+
+import com.zxin.gateway.cache.ResponseCache;
+import com.zxin.gateway.ratelimit.RateLimiter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RoutePolicyProperties.class)
+public class RoutePolicyConfig {
+
+    @Bean
+    public ResponseCache responseCache(RoutePolicyProperties prop) {
+        return new ResponseCache(prop.getRoutes());
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RoutePolicyProperties prop) {
+        return new RateLimiter(prop.getRoutes());
+    }
+}
@@ -0,0 +1,166 @@
+package com.zxin.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 每个路由的网关策略, 和路由写在一起: zuul.routes.<路由id>.cache / rate-limit
+// path/service-id 等路由本身的配置由 Zuul 自己的 ZuulProperties 读取, 这里只读多出来的部分
+// 注意: 要用 path + service-id 的完整写法, 简写 (路由id: /path/**) 没法再加子配置
+@ConfigurationProperties(prefix = "zuul")
+public class RoutePolicyProperties {
+    Map<String, Route> routes = new LinkedHashMap<>();
+
+    public Map<String, Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Route {
+        Cache cache = new Cache();
+        RateLimit rateLimit = new RateLimit();
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public void setCache(Cache cache) {
+            this.cache = cache;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        public void setRateLimit(RateLimit rateLimit) {
+            this.rateLimit = rateLimit;
+        }
+    }
+
+    // GET 响应缓存
+    public static class Cache {
+        boolean enabled = false;
+        Duration ttl = Duration.ofSeconds(30);                 // 最长缓存时间, 响应里 max-age 更短就按 max-age
+        DataSize maxMemory = DataSize.ofMegabytes(64);         // 这个路由的缓存最多占多少内存
+        DataSize maxEntrySize = DataSize.ofKilobytes(256);     // 超过这个大小的响应不缓存
+        List<String> varyHeaders = new ArrayList<>();          // 这些请求头的值不同, 缓存也分开 (例如 Accept)
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public DataSize getMaxMemory() {
+            return maxMemory;
+        }
+
+        public void setMaxMemory(DataSize maxMemory) {
+            this.maxMemory = maxMemory;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+
+        public List<String> getVaryHeaders() {
+            return varyHeaders;
+        }
+
+        public void setVaryHeaders(List<String> varyHeaders) {
+            this.varyHeaders = varyHeaders;
+        }
+    }
+
+    // 限流: 每个登录用户一个令牌桶, 整个路由再一个令牌桶
+    public static class RateLimit {
+        boolean enabled = false;
+        Limit perToken = new Limit();                          // 每个客户端 (token 里的用户, 公开路径按 IP)
+        Limit perRoute = new Limit();                          // 整个路由
+        long maxClients = 100000;                              // 最多记录多少个客户端的令牌桶
+        Duration idleExpiry = Duration.ofMinutes(10);          // 多久没请求的客户端令牌桶被清掉
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Limit getPerToken() {
+            return perToken;
+        }
+
+        public void setPerToken(Limit perToken) {
+            this.perToken = perToken;
+        }
+
+        public Limit getPerRoute() {
+            return perRoute;
+        }
+
+        public void setPerRoute(Limit perRoute) {
+            this.perRoute = perRoute;
+        }
+
+        public long getMaxClients() {
+            return maxClients;
+        }
+
+        public void setMaxClients(long maxClients) {
+            this.maxClients = maxClients;
+        }
+
+        public Duration getIdleExpiry() {
+            return idleExpiry;
+        }
+
+        public void setIdleExpiry(Duration idleExpiry) {
+            this.idleExpiry = idleExpiry;
+        }
+    }
+
+    public static class Limit {
+        double rate = 0;   // 每秒多少个请求, 0 表示不限
+        int burst = 1;     // 桶的容量: 最多允许一下子来多少个请求
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
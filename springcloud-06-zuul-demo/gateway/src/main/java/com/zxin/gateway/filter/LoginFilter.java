@@ -3,14 +3,30 @@ package com.zxin.gateway.filter;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import com.netflix.zuul.exception.ZuulException;
+import com.zxin.token.PublicPaths;
+import com.zxin.token.TokenVerifier;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
 import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
 
 import javax.servlet.http.HttpServletRequest;
 
+@Component
 public class LoginFilter extends ZuulFilter{
 
+    // 校验通过的 token 里的 subject 放在 RequestContext 里, 后面的过滤器 (RateLimitFilter) 按它区分用户
+    public static final String PRINCIPAL_KEY = "principal";
+
+    private final TokenVerifier tokenVerifier;
+    private final PublicPaths publicPaths;
+
+    // 两个 bean 都来自 gateway-token 模块, gateway-reactive 的 LoginFilter 也用它们
+    public LoginFilter(TokenVerifier tokenVerifier, PublicPaths publicPaths) {
+        this.tokenVerifier = tokenVerifier;
+        this.publicPaths = publicPaths;
+    }
+
     @Override
     public String filterType() {
         return FilterConstants.PRE_TYPE;
@@ -21,10 +37,10 @@ public class LoginFilter extends ZuulFilter{
         return FilterConstants.PRE_DECORATION_FILTER_ORDER - 1;
     }
 
-    // 是否拦截
+    // 是否拦截: 公开的路径不拦截
     @Override
     public boolean shouldFilter() {
-        return true;
+        return !publicPaths.matches(RequestContext.getCurrentContext().getRequest().getRequestURI());
     }
 
     @Override
@@ -36,12 +52,14 @@ public class LoginFilter extends ZuulFilter{
         // 获取请求参数access-token
         String token = request.getParameter("access-token");
 
-        if(StringUtils.isBlank(token)){
-            // 不存在，未登陆，则拦截
+        // 不存在或者签名/过期时间校验不通过，则拦截
+        if(StringUtils.isBlank(token) || !tokenVerifier.verify(token)){
             ctx.setSendZuulResponse(false);
             // 设置状态码，返回403
             ctx.setResponseStatusCode(HttpStatus.FORBIDDEN.value());
+            return null;
         }
+        ctx.set(PRINCIPAL_KEY, TokenVerifier.subject(token));
         return null;
     }
 }
@@ -0,0 +1,57 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.gateway.ratelimit.RateLimiter;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// 限流: 每个客户端和每个路由的请求速率, 超过就返回 429 和 Retry-After
+// 客户端按 LoginFilter 校验过的用户区分, 公开的路径不校验 token, 按 IP 区分 (否则换个假 token 就是一个新的桶)
+// 在 LoginFilter 和 PreDecorationFilter 之后 (要知道路由), 响应缓存之前执行
+@Component
+public class RateLimitFilter extends ZuulFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse() && rateLimiter.isEnabled((String) ctx.get(FilterConstants.PROXY_KEY));
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String principal = (String) ctx.get(LoginFilter.PRINCIPAL_KEY);
+        String client = principal != null ? "user:" + principal : "ip:" + ctx.getRequest().getRemoteAddr();
+
+        long waitNanos = rateLimiter.tryAcquire((String) ctx.get(FilterConstants.PROXY_KEY), client);
+        if (waitNanos > 0) {
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+            // Retry-After 只能是整秒, 向上取整
+            long retryAfter = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+            ctx.addZuulResponseHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        }
+        return null;
+    }
+}
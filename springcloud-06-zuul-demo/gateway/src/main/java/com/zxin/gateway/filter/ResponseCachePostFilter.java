@@ -0,0 +1,145 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import com.zxin.gateway.cache.CachedResponse;
+import com.zxin.gateway.cache.HttpCaching;
+import com.zxin.gateway.cache.ResponseCache;
+import com.zxin.gateway.config.RoutePolicyProperties;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 响应缓存的写入: 源站返回的 200 响应, 按 Cache-Control 决定存不存、存多久, 在 SendResponseFilter 之前执行
+// 带 access-token 的请求只存 Cache-Control 里有 public 或 s-maxage 的响应
+// 源站没有给 ETag 的话用响应体的 MD5 生成一个, 客户端下次带 If-None-Match 就可以拿到 304
+@Component
+public class ResponseCachePostFilter extends ZuulFilter {
+
+    private final ResponseCache responseCache;
+
+    public ResponseCachePostFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.get(ResponseCachePreFilter.CACHE_KEY) != null
+                && ctx.get(ResponseCachePreFilter.CACHE_HIT) == null
+                && ctx.getThrowable() == null
+                && ctx.getResponseStatusCode() == HttpStatus.OK.value()
+                && ctx.getResponseDataStream() != null
+                && !ctx.getResponseGZipped(); // 压缩过的响应不缓存, 省得再判断客户端支不支持 gzip
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+        RoutePolicyProperties.Cache config = responseCache.config(routeId);
+
+        String cacheControl = originHeader(ctx, HttpHeaders.CACHE_CONTROL);
+        if (HttpCaching.hasDirective(cacheControl, "no-store") || HttpCaching.hasDirective(cacheControl, "private")
+                || HttpCaching.hasDirective(cacheControl, "no-cache") || originHeader(ctx, HttpHeaders.SET_COOKIE) != null) {
+            return null;
+        }
+        // 缓存 key 里没有 access-token, 登录用户的响应要源站明确说可以共享才存 (和 RFC 7234 对 Authorization 的要求一样)
+        if (ctx.getRequest().getParameter(ResponseCache.TOKEN_PARAM) != null
+                && !HttpCaching.hasDirective(cacheControl, "public") && !HttpCaching.hasDirective(cacheControl, "s-maxage")) {
+            return null;
+        }
+        long ttlNanos = config.getTtl().toNanos();
+        long maxAge = HttpCaching.maxAgeSeconds(cacheControl);
+        if (maxAge == 0) {
+            return null;
+        }
+        if (maxAge > 0) {
+            ttlNanos = Math.min(ttlNanos, TimeUnit.SECONDS.toNanos(maxAge));
+        }
+
+        byte[] body;
+        InputStream in = ctx.getResponseDataStream();
+        int limit = (int) Math.min(Integer.MAX_VALUE - 1, config.getMaxEntrySize().toBytes());
+        try {
+            body = readAtMost(in, limit + 1);
+        } catch (IOException e) {
+            throw new ZuulException(e, HttpStatus.BAD_GATEWAY.value(), e.getMessage());
+        }
+        if (body.length > limit) {
+            // 太大不缓存, 已经读出来的部分接回去原样返回
+            ctx.setResponseDataStream(new SequenceInputStream(new ByteArrayInputStream(body), in));
+            return null;
+        }
+        ctx.setResponseDataStream(new ByteArrayInputStream(body));
+
+        List<Pair<String, String>> headers = new ArrayList<>();
+        String etag = null;
+        for (Pair<String, String> header : ctx.getOriginResponseHeaders()) {
+            String name = header.first();
+            if (HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                etag = header.second();
+            }
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.TRANSFER_ENCODING.equalsIgnoreCase(name)
+                    && !HttpHeaders.CONNECTION.equalsIgnoreCase(name) && !HttpHeaders.DATE.equalsIgnoreCase(name)) {
+                headers.add(header);
+            }
+        }
+        if (etag == null) {
+            etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            headers.add(new Pair<>(HttpHeaders.ETAG, etag));
+            ctx.addZuulResponseHeader(HttpHeaders.ETAG, etag);
+        }
+        String key = (String) ctx.get(ResponseCachePreFilter.CACHE_KEY);
+        responseCache.put(routeId, key, new CachedResponse(HttpStatus.OK.value(), headers, body, etag, ttlNanos));
+
+        if (HttpCaching.etagMatches(ctx.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            ctx.setResponseStatusCode(HttpStatus.NOT_MODIFIED.value());
+            ctx.setResponseDataStream(null);
+        }
+        return null;
+    }
+
+    private static String originHeader(RequestContext ctx, String name) {
+        for (Pair<String, String> header : ctx.getOriginResponseHeaders()) {
+            if (name.equalsIgnoreCase(header.first())) {
+                return header.second();
+            }
+        }
+        return null;
+    }
+
+    // 最多读 max 个字节
+    private static byte[] readAtMost(InputStream in, int max) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(max, 8192));
+        byte[] buffer = new byte[8192];
+        int n;
+        while (out.size() < max && (n = in.read(buffer, 0, Math.min(buffer.length, max - out.size()))) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,87 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.gateway.cache.CachedResponse;
+import com.zxin.gateway.cache.HttpCaching;
+import com.zxin.gateway.cache.ResponseCache;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayInputStream;
+
+// 响应缓存的读取: 开启了缓存的路由上的 GET 请求, 缓存命中就直接返回, 不再转发
+// 在 PreDecorationFilter 之后执行, 这时已经知道请求属于哪个路由 (ctx 里的 proxy)
+// 被 LoginFilter 或 RateLimitFilter 拦下的请求不处理
+@Component
+public class ResponseCachePreFilter extends ZuulFilter {
+
+    static final String CACHE_KEY = "responseCacheKey";  // 有这个 key, ResponseCachePostFilter 才会存响应
+    static final String CACHE_HIT = "responseCacheHit";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCachePreFilter(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 2; // 在 RateLimitFilter 之后
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse() // 已经被拦截的不处理
+                && "GET".equals(ctx.getRequest().getMethod())
+                && responseCache.config((String) ctx.get(FilterConstants.PROXY_KEY)) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        HttpServletRequest request = ctx.getRequest();
+        String routeId = (String) ctx.get(FilterConstants.PROXY_KEY);
+        String key = responseCache.key(routeId, request);
+
+        String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (HttpCaching.hasDirective(cacheControl, "no-store")) {
+            return null; // 客户端不让存
+        }
+        ctx.set(CACHE_KEY, key);
+        CachedResponse cached = HttpCaching.hasDirective(cacheControl, "no-cache")
+                ? null // 客户端要求重新到源站取, 取回来的新响应照样更新缓存
+                : responseCache.get(routeId, key);
+        if (cached == null) {
+            ctx.addZuulResponseHeader("X-Cache", "MISS");
+            return null;
+        }
+
+        // 命中: 不再转发, 由 SendResponseFilter 把缓存的响应写回去
+        ctx.set(CACHE_HIT, Boolean.TRUE);
+        ctx.setSendZuulResponse(false);
+        for (Pair<String, String> header : cached.getHeaders()) {
+            ctx.addZuulResponseHeader(header.first(), header.second());
+        }
+        ctx.addZuulResponseHeader(HttpHeaders.AGE, String.valueOf(cached.getAgeSeconds()));
+        ctx.addZuulResponseHeader("X-Cache", "HIT");
+        if (HttpCaching.etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), cached.getEtag())) {
+            ctx.setResponseStatusCode(HttpStatus.NOT_MODIFIED.value()); // 客户端的版本没变, 不用再发响应体
+            return null;
+        }
+        ctx.setResponseStatusCode(cached.getStatus());
+        ctx.setOriginContentLength((long) cached.getBody().length);
+        ctx.setResponseDataStream(new ByteArrayInputStream(cached.getBody()));
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// 每个路由的耗时: gateway.requests{route, status}, 从 RouteTimingPreFilter 到响应写完
+// 被 LoginFilter/RateLimitFilter 拦下的、缓存命中的请求也算在内, 用 status 区分; 分位数的配置在 instrumentation 模块
+@Component
+public class RouteTimingPostFilter extends ZuulFilter {
+
+    private final MeterRegistry registry;
+
+    public RouteTimingPostFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().get(RouteTimingPreFilter.START_KEY) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        long start = (Long) ctx.get(RouteTimingPreFilter.START_KEY);
+        String route = (String) ctx.get(FilterConstants.PROXY_KEY);
+        Timer.builder("gateway.requests")
+                .tag("route", route == null ? "none" : route)
+                .tag("status", String.valueOf(ctx.getResponse().getStatus()))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
+    }
+}
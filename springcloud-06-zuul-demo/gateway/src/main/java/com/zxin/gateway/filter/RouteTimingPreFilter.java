@@ -0,0 +1,34 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+// 记下请求进入网关的时间, 第一个执行; 耗时在 RouteTimingPostFilter 里记录
+@Component
+public class RouteTimingPreFilter extends ZuulFilter {
+
+    static final String START_KEY = "routeTimingStart";
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SERVLET_DETECTION_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return true;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext.getCurrentContext().set(START_KEY, System.nanoTime());
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.instrumentation.trace.TraceContext;
+import com.zxin.instrumentation.trace.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+// 结束 TracePreFilter 开的 span: 第一个 post 过滤器, 到下游返回响应头为止, 不包括写回客户端
+@Component
+public class TracePostFilter extends ZuulFilter {
+
+    private final Tracer tracer;
+
+    public TracePostFilter(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable();
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return 0;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return RequestContext.getCurrentContext().get(TracePreFilter.CONTEXT_KEY) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        TraceContext context = (TraceContext) ctx.get(TracePreFilter.CONTEXT_KEY);
+        long start = (Long) ctx.get(TracePreFilter.START_KEY);
+        tracer.record(context, "route " + ctx.get(FilterConstants.PROXY_KEY) + " " + ctx.getResponseStatusCode(),
+                start, ctx.getThrowable());
+        return null;
+    }
+}
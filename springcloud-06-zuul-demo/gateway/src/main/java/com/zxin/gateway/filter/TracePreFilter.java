@@ -0,0 +1,51 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.instrumentation.trace.TraceContext;
+import com.zxin.instrumentation.trace.TraceHeaders;
+import com.zxin.instrumentation.trace.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+// 转发到下游之前开一个 span (网关 -> 服务), 通过请求头传给下游, 在 TracePostFilter 里结束
+// 网关自己的 span (整个请求) 由 instrumentation 模块的 TraceServletFilter 记录, 这个 span 挂在它下面
+// 被拦下 (LoginFilter/RateLimitFilter) 或者缓存命中的请求不转发, 也就没有这个 span
+@Component
+public class TracePreFilter extends ZuulFilter {
+
+    static final String CONTEXT_KEY = "traceRouteContext";
+    static final String START_KEY = "traceRouteStart";
+
+    private final Tracer tracer; // 关了 tracing.enabled 时是 null
+
+    public TracePreFilter(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable();
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 3; // 在 ResponseCachePreFilter 之后
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        return tracer != null && tracer.current() != null && RequestContext.getCurrentContext().sendZuulResponse();
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        TraceContext context = tracer.current().child();
+        TraceHeaders.inject(context, ctx::addZuulRequestHeader);
+        ctx.set(CONTEXT_KEY, context);
+        ctx.set(START_KEY, System.nanoTime());
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.zxin.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zxin.gateway.config.RoutePolicyProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 每个开启了限流的路由: 一个整个路由共用的令牌桶 + 每个客户端一个令牌桶
+// 客户端的令牌桶放在有上限、会过期的缓存里, 客户端再多内存也不会一直涨
+public class RateLimiter {
+
+    private final Map<String, RouteLimiter> routes = new HashMap<>();
+
+    public RateLimiter(Map<String, RoutePolicyProperties.Route> routeConfigs) {
+        for (Map.Entry<String, RoutePolicyProperties.Route> entry : routeConfigs.entrySet()) {
+            RoutePolicyProperties.RateLimit config = entry.getValue().getRateLimit();
+            if (config != null && config.isEnabled()) {
+                routes.put(entry.getKey(), new RouteLimiter(config));
+            }
+        }
+    }
+
+    public boolean isEnabled(String routeId) {
+        return routeId != null && routes.containsKey(routeId);
+    }
+
+    // 放行返回 0, 限流返回要等多久 (纳秒); 先查客户端自己的桶, 被拒的请求不占用整个路由的额度
+    public long tryAcquire(String routeId, String client) {
+        RouteLimiter limiter = routes.get(routeId);
+        if (limiter == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (limiter.perClient != null) {
+            long wait = limiter.perClient.get(client, k -> limiter.newClientBucket()).tryAcquire(now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        return limiter.perRoute == null ? 0 : limiter.perRoute.tryAcquire(now);
+    }
+
+    private static class RouteLimiter {
+        final RoutePolicyProperties.Limit perTokenLimit;
+        final TokenBucket perRoute;
+        final Cache<String, TokenBucket> perClient;
+
+        RouteLimiter(RoutePolicyProperties.RateLimit config) {
+            RoutePolicyProperties.Limit routeLimit = config.getPerRoute();
+            this.perRoute = routeLimit.getRate() > 0 ? new TokenBucket(routeLimit.getRate(), routeLimit.getBurst()) : null;
+            this.perTokenLimit = config.getPerToken();
+            this.perClient = perTokenLimit.getRate() > 0
+                    ? Caffeine.newBuilder()
+                        .maximumSize(config.getMaxClients())
+                        .expireAfterAccess(config.getIdleExpiry().toNanos(), TimeUnit.NANOSECONDS)
+                        .build()
+                    : null;
+        }
+
+        TokenBucket newClientBucket() {
+            return new TokenBucket(perTokenLimit.getRate(), perTokenLimit.getBurst());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.zxin.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 无锁的令牌桶: 不单独存令牌数和上次补充时间, 而是只存"桶里令牌全部用完之后的那个时刻"(GCRA 的写法)
+// 令牌数 = (当前时间 + 容量对应的时长 - 这个时刻) / 每个令牌的间隔, 所以一个 long 就是桶的全部状态, 一次 CAS 更新
+public class TokenBucket {
+
+    private final long intervalNanos; // 补充一个令牌要多久
+    private final long burstNanos;    // 桶装满需要多久 (容量 * 间隔)
+    private final AtomicLong tat;     // theoretical arrival time
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.tat = new AtomicLong(System.nanoTime()); // 开始时桶是满的
+    }
+
+    // 拿一个令牌: 拿到返回 0, 拿不到返回还要等多久 (纳秒)
+    public long tryAcquire(long nowNanos) {
+        for (;;) {
+            long current = tat.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait; // 令牌不够, 不修改状态
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.zxin.gateway.cache;
+
+import com.zxin.gateway.config.RoutePolicyProperties;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ResponseCacheTests {
+
+    private final ResponseCache responseCache = newResponseCache();
+
+    @Test
+    public void keyIgnoresAccessToken() {
+        String alice = responseCache.key("users", request("/consumer-demo/consumer/1", "access-token=alice&fields=name"));
+        String bob = responseCache.key("users", request("/consumer-demo/consumer/1", "fields=name&access-token=bob"));
+        String other = responseCache.key("users", request("/consumer-demo/consumer/2", "access-token=alice&fields=name"));
+
+        assertEquals("/consumer-demo/consumer/1?fields=name", alice);
+        assertEquals(alice, bob);
+        assertNotEquals(alice, other);
+    }
+
+    private static MockHttpServletRequest request(String uri, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setQueryString(query);
+        return request;
+    }
+
+    private static ResponseCache newResponseCache() {
+        RoutePolicyProperties.Route route = new RoutePolicyProperties.Route();
+        route.getCache().setEnabled(true);
+        return new ResponseCache(Collections.singletonMap("users", route));
+    }
+}
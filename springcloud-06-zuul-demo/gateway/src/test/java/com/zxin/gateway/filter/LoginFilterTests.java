@@ -0,0 +1,69 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.token.PublicPaths;
+import com.zxin.token.TokenVerifier;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoginFilterTests {
+
+    private final TokenVerifier tokenVerifier = new TokenVerifier(Collections.singletonMap("k1", "test-secret"), 100);
+    private final LoginFilter loginFilter = new LoginFilter(tokenVerifier,
+            new PublicPaths(Collections.singletonList("/consumer-demo/public/**")));
+    private final long expiresAt = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 3600;
+
+    @After
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Test
+    public void unsignedTokenIsForbidden() throws Exception {
+        RequestContext ctx = context("/consumer-demo/consumer/1", "k1.10086." + expiresAt + ".bm90LXNpZ25lZA");
+
+        assertTrue(loginFilter.shouldFilter());
+        loginFilter.run();
+
+        assertFalse(ctx.sendZuulResponse());
+        assertEquals(403, ctx.getResponseStatusCode());
+    }
+
+    @Test
+    public void signedTokenIsRouted() throws Exception {
+        RequestContext ctx = context("/consumer-demo/consumer/1", tokenVerifier.sign("k1", "10086", expiresAt));
+
+        loginFilter.run();
+
+        assertTrue(ctx.sendZuulResponse());
+        assertEquals("10086", ctx.get(LoginFilter.PRINCIPAL_KEY));
+    }
+
+    @Test
+    public void publicPathNeedsNoToken() {
+        context("/consumer-demo/public/ping", null);
+
+        assertFalse(loginFilter.shouldFilter());
+    }
+
+    private static RequestContext context(String uri, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (token != null) {
+            request.setParameter("access-token", token);
+        }
+        RequestContext ctx = new RequestContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+        RequestContext.testSetCurrentContext(ctx);
+        return ctx;
+    }
+}
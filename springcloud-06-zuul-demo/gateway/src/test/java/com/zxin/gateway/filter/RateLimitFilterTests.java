@@ -0,0 +1,77 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.gateway.config.RoutePolicyProperties;
+import com.zxin.gateway.ratelimit.RateLimiter;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimitFilterTests {
+
+    private final RateLimitFilter rateLimitFilter = new RateLimitFilter(newRateLimiter());
+
+    @After
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Test
+    public void overLimitIsRejectedWith429() {
+        assertTrue(send("alice", "t1").sendZuulResponse());
+        assertTrue(send("alice", "t2").sendZuulResponse());
+
+        RequestContext ctx = send("alice", "t3");
+        assertFalse(ctx.sendZuulResponse());
+        assertEquals(429, ctx.getResponseStatusCode());
+        assertTrue(ctx.getZuulResponseHeaders().stream()
+                .anyMatch(h -> h.first().equals(HttpHeaders.RETRY_AFTER) && h.second().equals("1")));
+
+        assertTrue(send("bob", "t4").sendZuulResponse());
+    }
+
+    @Test
+    public void unverifiedTokensShareTheIpBucket() {
+        // 公开的路径不经过 LoginFilter, 每次换一个假 token 也还是同一个 IP 的桶
+        assertTrue(send(null, "fake-1").sendZuulResponse());
+        assertTrue(send(null, "fake-2").sendZuulResponse());
+        assertFalse(send(null, "fake-3").sendZuulResponse());
+    }
+
+    // principal: LoginFilter 校验通过后放进 RequestContext 的用户, null 表示没校验
+    private RequestContext send(String principal, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/consumer-demo/consumer/1");
+        request.setParameter("access-token", token);
+        RequestContext ctx = new RequestContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+        ctx.set(FilterConstants.PROXY_KEY, "users");
+        if (principal != null) {
+            ctx.set(LoginFilter.PRINCIPAL_KEY, principal);
+        }
+        RequestContext.testSetCurrentContext(ctx);
+
+        if (rateLimitFilter.shouldFilter()) {
+            rateLimitFilter.run();
+        }
+        return ctx;
+    }
+
+    // 每个客户端每秒 1 个, 一次最多 2 个
+    private static RateLimiter newRateLimiter() {
+        RoutePolicyProperties.Route route = new RoutePolicyProperties.Route();
+        route.getRateLimit().setEnabled(true);
+        route.getRateLimit().getPerToken().setRate(1);
+        route.getRateLimit().getPerToken().setBurst(2);
+        return new RateLimiter(Collections.singletonMap("users", route));
+    }
+}
@@ -0,0 +1,183 @@
+package com.zxin.gateway.filter;
+
+import com.netflix.util.Pair;
+import com.netflix.zuul.context.RequestContext;
+import com.zxin.gateway.cache.CachedResponse;
+import com.zxin.gateway.cache.ResponseCache;
+import com.zxin.gateway.config.RoutePolicyProperties;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheFilterTests {
+
+    private static final String ROUTE = "users";
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final ResponseCache responseCache = newResponseCache();
+    private final ResponseCachePreFilter preFilter = new ResponseCachePreFilter(responseCache);
+    private final ResponseCachePostFilter postFilter = new ResponseCachePostFilter(responseCache);
+
+    @After
+    public void tearDown() {
+        RequestContext.getCurrentContext().unset();
+    }
+
+    @Test
+    public void cacheableResponseIsServedFromCache() throws Exception {
+        origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, "max-age=60");
+
+        RequestContext hit = request(null);
+        pre(hit);
+        assertFalse(hit.sendZuulResponse());
+        assertEquals(200, hit.getResponseStatusCode());
+        assertArrayEquals(BODY, StreamUtils.copyToByteArray(hit.getResponseDataStream()));
+        assertEquals("HIT", responseHeader(hit, "X-Cache"));
+    }
+
+    @Test
+    public void responsesMarkedNotShareableAreNotStored() throws Exception {
+        for (String cacheControl : new String[]{"no-store", "private, max-age=60", "no-cache"}) {
+            origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, cacheControl);
+            assertNull(cacheControl, cached(null));
+        }
+    }
+
+    @Test
+    public void responseWithSetCookieIsNotStored() throws Exception {
+        origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, "public, max-age=60",
+                HttpHeaders.SET_COOKIE, "session=alice");
+        assertNull(cached(null));
+    }
+
+    @Test
+    public void tokenRequestsOnlyStorePublicResponses() throws Exception {
+        origin(request("alice"), BODY, HttpHeaders.CACHE_CONTROL, "max-age=60");
+        assertNull(cached("bob")); // alice 的响应不能给 bob
+
+        origin(request("alice"), BODY, HttpHeaders.CACHE_CONTROL, "public, max-age=60");
+        assertNotNull(cached("bob"));
+    }
+
+    @Test
+    public void matchingEtagGets304() throws Exception {
+        RequestContext first = request(null, HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        origin(first, BODY, HttpHeaders.CACHE_CONTROL, "max-age=60", HttpHeaders.ETAG, "\"v1\"");
+        assertEquals(304, first.getResponseStatusCode());
+        assertNull(first.getResponseDataStream());
+
+        RequestContext hit = request(null, HttpHeaders.IF_NONE_MATCH, "W/\"v1\"");
+        pre(hit);
+        assertFalse(hit.sendZuulResponse());
+        assertEquals(304, hit.getResponseStatusCode());
+        assertNull(hit.getResponseDataStream());
+    }
+
+    @Test
+    public void oversizedResponsePassesThroughUncached() throws Exception {
+        byte[] large = new byte[100]; // max-entry-size 是 64B
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        RequestContext ctx = request(null);
+        origin(ctx, large, HttpHeaders.CACHE_CONTROL, "max-age=60");
+
+        assertArrayEquals(large, StreamUtils.copyToByteArray(ctx.getResponseDataStream()));
+        assertNull(cached(null));
+    }
+
+    @Test
+    public void maxAgeShortensTtl() throws Exception {
+        origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, "max-age=5");
+        assertEquals(TimeUnit.SECONDS.toNanos(5), cached(null).getTtlNanos());
+    }
+
+    @Test
+    public void ttlNeverExceedsRouteTtl() throws Exception {
+        origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, "max-age=600");
+        assertEquals(TimeUnit.SECONDS.toNanos(30), cached(null).getTtlNanos());
+    }
+
+    @Test
+    public void maxAgeZeroIsNotStored() throws Exception {
+        origin(request(null), BODY, HttpHeaders.CACHE_CONTROL, "max-age=0");
+        assertNull(cached(null));
+    }
+
+    // 走一遍 pre -> 源站返回 200 -> post
+    private void origin(RequestContext ctx, byte[] body, String... headers) throws Exception {
+        pre(ctx);
+        assertTrue(ctx.sendZuulResponse());
+        ctx.setResponseStatusCode(200);
+        for (int i = 0; i < headers.length; i += 2) {
+            ctx.addOriginResponseHeader(headers[i], headers[i + 1]);
+        }
+        ctx.setResponseDataStream(new ByteArrayInputStream(body));
+        if (postFilter.shouldFilter()) {
+            postFilter.run();
+        }
+    }
+
+    private void pre(RequestContext ctx) {
+        RequestContext.testSetCurrentContext(ctx);
+        if (preFilter.shouldFilter()) {
+            preFilter.run();
+        }
+    }
+
+    private CachedResponse cached(String token) {
+        return responseCache.get(ROUTE, responseCache.key(ROUTE, request(token).getRequest()));
+    }
+
+    private static String responseHeader(RequestContext ctx, String name) {
+        for (Pair<String, String> header : ctx.getZuulResponseHeaders()) {
+            if (header.first().equals(name)) {
+                return header.second();
+            }
+        }
+        return null;
+    }
+
+    private static RequestContext request(String token, String... headers) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/consumer-demo/consumer/1");
+        if (token != null) {
+            request.setParameter(ResponseCache.TOKEN_PARAM, token);
+            request.setQueryString(ResponseCache.TOKEN_PARAM + "=" + token);
+        }
+        for (int i = 0; i < headers.length; i += 2) {
+            request.addHeader(headers[i], headers[i + 1]);
+        }
+        RequestContext ctx = new RequestContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+        ctx.set(FilterConstants.PROXY_KEY, ROUTE);
+        RequestContext.testSetCurrentContext(ctx);
+        return ctx;
+    }
+
+    private static ResponseCache newResponseCache() {
+        RoutePolicyProperties.Route route = new RoutePolicyProperties.Route();
+        route.getCache().setEnabled(true);
+        route.getCache().setTtl(Duration.ofSeconds(30));
+        route.getCache().setMaxEntrySize(DataSize.ofBytes(64));
+        return new ResponseCache(Collections.singletonMap(ROUTE, route));
+    }
+}
@@ -0,0 +1,56 @@
+package com.zxin.gateway.ratelimit;
+
+import com.zxin.gateway.config.RoutePolicyProperties;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterTests {
+
+    @Test
+    public void eachClientHasItsOwnBucket() {
+        RateLimiter rateLimiter = newRateLimiter(2, 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:alice"));
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:alice"));
+        assertTrue(rateLimiter.tryAcquire("users", "user:alice") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:bob"));
+    }
+
+    @Test
+    public void routeBucketIsSharedByAllClients() {
+        RateLimiter rateLimiter = newRateLimiter(2, 3);
+
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:alice"));
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:alice"));
+        assertEquals(0, rateLimiter.tryAcquire("users", "user:bob"));
+        assertTrue(rateLimiter.tryAcquire("users", "user:bob") > 0);
+    }
+
+    @Test
+    public void routesWithoutRateLimitAreNotLimited() {
+        RateLimiter rateLimiter = newRateLimiter(2, 0);
+
+        assertTrue(rateLimiter.isEnabled("users"));
+        assertFalse(rateLimiter.isEnabled("orders"));
+        assertEquals(0, rateLimiter.tryAcquire("orders", "user:alice"));
+    }
+
+    // 每秒 1 个, 测试期间不会补充令牌, 只看 burst
+    private static RateLimiter newRateLimiter(int clientBurst, int routeBurst) {
+        RoutePolicyProperties.Route route = new RoutePolicyProperties.Route();
+        RoutePolicyProperties.RateLimit rateLimit = route.getRateLimit();
+        rateLimit.setEnabled(true);
+        rateLimit.getPerToken().setRate(1);
+        rateLimit.getPerToken().setBurst(clientBurst);
+        if (routeBurst > 0) {
+            rateLimit.getPerRoute().setRate(1);
+            rateLimit.getPerRoute().setBurst(routeBurst);
+        }
+        return new RateLimiter(Collections.singletonMap("users", route));
+    }
+}
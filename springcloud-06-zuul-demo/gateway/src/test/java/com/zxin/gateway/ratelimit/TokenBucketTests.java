@@ -0,0 +1,54 @@
+package com.zxin.gateway.ratelimit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTests {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // 每秒 10 个, 一次最多 3 个
+    private final TokenBucket bucket = new TokenBucket(10, 3);
+    private final long now = System.nanoTime();
+
+    @Test
+    public void allowsBurstThenRejects() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        long wait = bucket.tryAcquire(now);
+        assertEquals(INTERVAL, wait);
+    }
+
+    @Test
+    public void rejectedRequestsDoNotUseTokens() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(now);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryAcquire(now) > 0);
+        }
+        // 被拒的请求不占令牌, 过一个间隔就能再拿到一个
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL));
+    }
+
+    @Test
+    public void refillsAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(now);
+        }
+        assertEquals(0, bucket.tryAcquire(now + INTERVAL));
+        assertTrue(bucket.tryAcquire(now + INTERVAL) > 0);
+
+        // 空闲很久之后最多也只补满到 3 个
+        long later = now + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.zxin.instrumentation;
+
+import com.zxin.instrumentation.trace.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 加了这个依赖的服务自动生效 (META-INF/spring.factories)
+// Web 接口用 Spring Boot 自带的 http.server.requests, 这里只加分位数; 网关的路由在 gateway 的 RouteTiming*Filter 里记录
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@EnableConfigurationProperties(InstrumentationProperties.class)
+public class InstrumentationAutoConfiguration {
+
+    @Bean
+    public LatencyPercentilesMeterFilter latencyPercentilesMeterFilter(InstrumentationProperties prop) {
+        return new LatencyPercentilesMeterFilter(prop);
+    }
+
+    // MyBatis 的自动配置会把 Interceptor 类型的 bean 加到 SqlSessionFactory 上
+    @Configuration
+    @ConditionalOnClass(Interceptor.class)
+    static class MybatisTimingConfiguration {
+
+        @Bean
+        public MybatisTimingInterceptor mybatisTimingInterceptor(MeterRegistry registry, ObjectProvider<Tracer> tracer) {
+            return new MybatisTimingInterceptor(registry, tracer.getIfAvailable());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.zxin.instrumentation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "instrumentation")  // 延时分位数的统计配置
+public class InstrumentationProperties {
+    List<String> meters = new ArrayList<>(Arrays.asList(
+            "http.server.requests", "gateway.requests", "mybatis.statements")); // 这些名字开头的 Timer 统计分位数
+    double[] percentiles = {0.5, 0.99, 0.999};
+    Duration expiry = Duration.ofMinutes(1);  // 分位数统计最近这么长时间内的请求
+    int bufferLength = 3;                     // 滑动窗口分成几段, 每 expiry/bufferLength 轮换一段
+
+    public List<String> getMeters() {
+        return meters;
+    }
+
+    public void setMeters(List<String> meters) {
+        this.meters = meters;
+    }
+
+    public double[] getPercentiles() {
+        return percentiles;
+    }
+
+    public void setPercentiles(double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    public Duration getExpiry() {
+        return expiry;
+    }
+
+    public void setExpiry(Duration expiry) {
+        this.expiry = expiry;
+    }
+
+    public int getBufferLength() {
+        return bufferLength;
+    }
+
+    public void setBufferLength(int bufferLength) {
+        this.bufferLength = bufferLength;
+    }
+}
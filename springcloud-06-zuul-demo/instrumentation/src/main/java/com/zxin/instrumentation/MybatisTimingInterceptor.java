@@ -0,0 +1,81 @@
+package com.zxin.instrumentation;
+
+import com.zxin.instrumentation.trace.TraceContext;
+import com.zxin.instrumentation.trace.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// 每条 Mapper 语句的耗时: mybatis.statements{statement="...UserMapper.selectByPrimaryKey"}
+// 包括拿连接、执行 SQL 和结果映射; 采样到的请求同时记一个 span (名字是语句的 id)
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class MybatisTimingInterceptor implements Interceptor {
+
+    private final MeterRegistry registry;
+    private final Tracer tracer; // 关了 tracing 时是 null
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>(); // 语句的个数是固定的, 每条一个 Timer
+
+    public MybatisTimingInterceptor(MeterRegistry registry, Tracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        TraceContext current = tracer == null ? null : tracer.current();
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+            timer(ms.getId()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (current != null) {
+                tracer.record(current.child(), ms.getId(), start, error);
+            }
+        }
+    }
+
+    private Timer timer(String statement) {
+        Timer timer = timers.get(statement);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(statement, s -> Timer.builder("mybatis.statements")
+                    .tag("statement", s)
+                    .register(registry));
+        }
+        return timer;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return Plugin.wrap(target, this);
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+}
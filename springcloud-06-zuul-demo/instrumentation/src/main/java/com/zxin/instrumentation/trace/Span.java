@@ -0,0 +1,57 @@
+package com.zxin.instrumentation.trace;
+
+// 一跳的耗时, 放在 SpanRingBuffer 里, /actuator/traces 按 JSON 输出
+public class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentId;
+    private final String service;
+    private final String name;
+    private final long timestamp;      // 开始时间 (epoch 微秒)
+    private final long durationMicros;
+    private final String error;
+
+    Span(TraceContext context, String service, String name, long timestamp, long durationMicros, String error) {
+        this.traceId = TraceContext.toHex(context.getTraceId());
+        this.spanId = TraceContext.toHex(context.getSpanId());
+        this.parentId = context.getParentId() == 0 ? null : TraceContext.toHex(context.getParentId());
+        this.service = service;
+        this.name = name;
+        this.timestamp = timestamp;
+        this.durationMicros = durationMicros;
+        this.error = error;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
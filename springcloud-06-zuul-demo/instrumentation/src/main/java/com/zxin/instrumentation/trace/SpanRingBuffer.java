@@ -0,0 +1,35 @@
+package com.zxin.instrumentation.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// 最近的 capacity 个 span, 写满后覆盖最老的; 写入只有一次 getAndIncrement, 不加锁
+public class SpanRingBuffer {
+
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicLong next = new AtomicLong();
+
+    public SpanRingBuffer(int capacity) {
+        this.spans = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(Span span) {
+        spans.set((int) (next.getAndIncrement() % spans.length()), span);
+    }
+
+    // 从新到旧; 读的时候还在写的话, 可能漏掉或多出几个, 不影响排查
+    public List<Span> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - spans.length());
+        List<Span> result = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            Span span = spans.get((int) (i % spans.length()));
+            if (span != null) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+package com.zxin.instrumentation.trace;
+
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.client.loadbalancer.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.annotation.PostConstruct;
+
+// 请求链路跟踪, 按 classpath 上有什么自动加上对应的埋点:
+// Servlet 入口、@LoadBalanced 的 RestTemplate、Feign、Hystrix 的线程切换; MyBatis 的在 MybatisTimingInterceptor 里, 网关的在 gateway 的 Trace*Filter 里
+@Configuration
+@ConditionalOnProperty(prefix = "tracing", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(TraceProperties.class)
+public class TraceAutoConfiguration {
+
+    @Bean
+    public Tracer tracer(TraceProperties prop, Environment env) {
+        return new Tracer(env.getProperty("spring.application.name", "unknown"), prop.getSampleRate(),
+                new SpanRingBuffer(prop.getBufferSize()));
+    }
+
+    @Bean
+    public TraceEndpoint traceEndpoint(Tracer tracer) {
+        return new TraceEndpoint(tracer);
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletTraceConfiguration {
+
+        // 排在最前面, 后面的 Filter (比如 http.server.requests 的统计) 也算在 span 里
+        @Bean
+        public FilterRegistrationBean<TraceServletFilter> traceServletFilter(Tracer tracer, TraceProperties prop) {
+            FilterRegistrationBean<TraceServletFilter> registration =
+                    new FilterRegistrationBean<>(new TraceServletFilter(tracer, prop.isTrustUpstream()));
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(RestTemplateCustomizer.class)
+    static class RestTemplateTraceConfiguration {
+
+        // LoadBalancerAutoConfiguration 会把 RestTemplateCustomizer 用到所有 @LoadBalanced 的 RestTemplate 上
+        @Bean
+        public RestTemplateCustomizer traceRestTemplateCustomizer(Tracer tracer) {
+            return restTemplate -> restTemplate.getInterceptors().add(new TraceRestTemplateInterceptor(tracer));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignTraceConfiguration {
+
+        @Bean
+        public TraceFeignInterceptor traceFeignInterceptor(Tracer tracer) {
+            return new TraceFeignInterceptor(tracer);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(HystrixPlugins.class)
+    static class HystrixTraceConfiguration {
+
+        @Autowired
+        private Tracer tracer;
+
+        @PostConstruct
+        public void registerConcurrencyStrategy() {
+            TraceHystrixConcurrencyStrategy.register(tracer);
+        }
+    }
+}
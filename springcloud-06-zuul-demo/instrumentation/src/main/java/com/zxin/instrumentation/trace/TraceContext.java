@@ -0,0 +1,72 @@
+package com.zxin.instrumentation.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// 当前请求所在的 trace: 跨服务用 B3 请求头传递 (TraceHeaders)
+// 不采样的请求也有 TraceContext, 只是 sampled = false, 下游照着它的决定来, 不会再自己采样
+public final class TraceContext {
+
+    private final long traceId;
+    private final long spanId;
+    private final long parentId; // 0 表示根
+    private final boolean sampled;
+
+    TraceContext(long traceId, long spanId, long parentId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.sampled = sampled;
+    }
+
+    static TraceContext root(boolean sampled) {
+        long id = nextId();
+        return new TraceContext(id, id, 0, sampled);
+    }
+
+    // 同一个 trace 里的下一跳
+    public TraceContext child() {
+        return new TraceContext(traceId, nextId(), spanId, sampled);
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public long getParentId() {
+        return parentId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    private static long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    // 16 位小写十六进制, 和 B3 的格式一样
+    static String toHex(long id) {
+        String hex = Long.toHexString(id);
+        if (hex.length() == 16) {
+            return hex;
+        }
+        StringBuilder sb = new StringBuilder(16);
+        for (int i = hex.length(); i < 16; i++) {
+            sb.append('0');
+        }
+        return sb.append(hex).toString();
+    }
+
+    static long fromHex(String hex) {
+        // trace id 可能是 32 位的 (128bit), 只取低 64 位
+        return Long.parseUnsignedLong(hex.length() > 16 ? hex.substring(hex.length() - 16) : hex, 16);
+    }
+}
@@ -0,0 +1,29 @@
+package com.zxin.instrumentation.trace;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// /actuator/traces: 本服务最近采样到的 span, 从新到旧
+// ?minDurationMs=200 只看慢的, ?traceId=... 看一个 trace 在本服务的所有 span (到其他服务的同一个地址再查一次)
+@Endpoint(id = "traces")
+public class TraceEndpoint {
+
+    private final Tracer tracer;
+
+    public TraceEndpoint(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @ReadOperation
+    public List<Span> traces(@Nullable String traceId, @Nullable Long minDurationMs) {
+        long minDurationMicros = minDurationMs == null ? 0 : minDurationMs * 1000;
+        return tracer.getSpans().snapshot().stream()
+                .filter(span -> traceId == null || traceId.equals(span.getTraceId()))
+                .filter(span -> span.getDurationMicros() >= minDurationMicros)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,23 @@
+package com.zxin.instrumentation.trace;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+// Feign 调用带上当前的 context; Feign 的拦截器看不到响应, 所以不单独记客户端 span, 下游的服务端 span 直接挂在当前 span 下面
+// Feign 开了 Hystrix 时在 Hystrix 的线程里执行, context 由 TraceHystrixConcurrencyStrategy 带过去
+public class TraceFeignInterceptor implements RequestInterceptor {
+
+    private final Tracer tracer;
+
+    public TraceFeignInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        TraceContext current = tracer.current();
+        if (current != null) {
+            TraceHeaders.inject(current, template::header);
+        }
+    }
+}
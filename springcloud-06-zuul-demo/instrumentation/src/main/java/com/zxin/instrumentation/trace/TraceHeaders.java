@@ -0,0 +1,42 @@
+package com.zxin.instrumentation.trace;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+// B3 请求头, 和 Zipkin/Sleuth 兼容
+public final class TraceHeaders {
+
+    public static final String TRACE_ID = "X-B3-TraceId";
+    public static final String SPAN_ID = "X-B3-SpanId";
+    public static final String PARENT_SPAN_ID = "X-B3-ParentSpanId";
+    public static final String SAMPLED = "X-B3-Sampled";
+
+    private TraceHeaders() {
+    }
+
+    // 把 context 写到下游请求的请求头里, 下游把它当作父 span
+    public static void inject(TraceContext context, BiConsumer<String, String> setter) {
+        setter.accept(TRACE_ID, TraceContext.toHex(context.getTraceId()));
+        setter.accept(SPAN_ID, TraceContext.toHex(context.getSpanId()));
+        if (context.getParentId() != 0) {
+            setter.accept(PARENT_SPAN_ID, TraceContext.toHex(context.getParentId()));
+        }
+        setter.accept(SAMPLED, context.isSampled() ? "1" : "0");
+    }
+
+    // 读上游传过来的 context, 没有或者格式不对返回 null
+    public static TraceContext extract(Function<String, String> getter) {
+        String traceId = getter.apply(TRACE_ID);
+        String spanId = getter.apply(SPAN_ID);
+        String sampled = getter.apply(SAMPLED);
+        if (traceId == null || spanId == null || sampled == null) {
+            return null;
+        }
+        try {
+            return new TraceContext(TraceContext.fromHex(traceId), TraceContext.fromHex(spanId), 0,
+                    "1".equals(sampled) || "true".equals(sampled));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.zxin.instrumentation.trace;
+
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariable;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableLifecycle;
+import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
+import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
+import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisher;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Hystrix 线程隔离的命令在它自己的线程池里执行, 把提交时的 context 带到执行的线程上
+// 合并请求 (@HystrixCollapser) 的批量命令是在 Hystrix 的定时器线程上提交的, 没有 context, 不属于任何一个请求的 trace
+// 只能注册一个 HystrixConcurrencyStrategy, 所以其他方法都交给原来的, 不丢掉它对线程池等的定制
+public class TraceHystrixConcurrencyStrategy extends HystrixConcurrencyStrategy {
+
+    private final Tracer tracer;
+    private final HystrixConcurrencyStrategy delegate;
+
+    private TraceHystrixConcurrencyStrategy(Tracer tracer, HystrixConcurrencyStrategy delegate) {
+        this.tracer = tracer;
+        this.delegate = delegate;
+    }
+
+    // HystrixPlugins 的每种插件只能注册一次, 先把已有的取出来, reset 之后再连同自己一起注册回去
+    public static void register(Tracer tracer) {
+        HystrixPlugins plugins = HystrixPlugins.getInstance();
+        HystrixConcurrencyStrategy existing = plugins.getConcurrencyStrategy();
+        if (existing instanceof TraceHystrixConcurrencyStrategy) {
+            return;
+        }
+        HystrixCommandExecutionHook commandExecutionHook = plugins.getCommandExecutionHook();
+        HystrixEventNotifier eventNotifier = plugins.getEventNotifier();
+        HystrixMetricsPublisher metricsPublisher = plugins.getMetricsPublisher();
+        HystrixPropertiesStrategy propertiesStrategy = plugins.getPropertiesStrategy();
+        HystrixPlugins.reset();
+        plugins = HystrixPlugins.getInstance();
+        plugins.registerConcurrencyStrategy(new TraceHystrixConcurrencyStrategy(tracer, existing));
+        plugins.registerCommandExecutionHook(commandExecutionHook);
+        plugins.registerEventNotifier(eventNotifier);
+        plugins.registerMetricsPublisher(metricsPublisher);
+        plugins.registerPropertiesStrategy(propertiesStrategy);
+    }
+
+    @Override
+    public <T> Callable<T> wrapCallable(Callable<T> callable) {
+        Callable<T> wrapped = delegate.wrapCallable(callable);
+        TraceContext context = tracer.current();
+        if (context == null) {
+            return wrapped;
+        }
+        return () -> {
+            TraceContext previous = tracer.swap(context);
+            try {
+                return wrapped.call();
+            } finally {
+                tracer.swap(previous);
+            }
+        };
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey, HystrixProperty<Integer> corePoolSize,
+                                            HystrixProperty<Integer> maximumPoolSize,
+                                            HystrixProperty<Integer> keepAliveTime, TimeUnit unit,
+                                            BlockingQueue<Runnable> workQueue) {
+        return delegate.getThreadPool(threadPoolKey, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue);
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey,
+                                            HystrixThreadPoolProperties threadPoolProperties) {
+        return delegate.getThreadPool(threadPoolKey, threadPoolProperties);
+    }
+
+    @Override
+    public BlockingQueue<Runnable> getBlockingQueue(int maxQueueSize) {
+        return delegate.getBlockingQueue(maxQueueSize);
+    }
+
+    @Override
+    public <T> HystrixRequestVariable<T> getRequestVariable(HystrixRequestVariableLifecycle<T> rv) {
+        return delegate.getRequestVariable(rv);
+    }
+}
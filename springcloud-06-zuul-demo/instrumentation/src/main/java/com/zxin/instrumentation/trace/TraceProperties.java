@@ -0,0 +1,43 @@
+package com.zxin.instrumentation.trace;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "tracing")  // 请求链路的采样跟踪
+public class TraceProperties {
+    boolean enabled = true;
+    double sampleRate = 0.01;  // 入口处 (网关) 采样的比例, 下游跟着上游的决定
+    int bufferSize = 10000;    // 每个服务在内存里保留最近多少个 span
+    boolean trustUpstream = true; // 直接对外的入口 (网关) 要设成 false: 客户端带来的 B3 请求头不算数, 自己重新采样
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public boolean isTrustUpstream() {
+        return trustUpstream;
+    }
+
+    public void setTrustUpstream(boolean trustUpstream) {
+        this.trustUpstream = trustUpstream;
+    }
+}
@@ -0,0 +1,41 @@
+package com.zxin.instrumentation.trace;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+// RestTemplate 的客户端 span: 记录这次调用的耗时, 下游的服务端 span 挂在它下面
+// 当前线程没有 context (比如 Hystrix 合并后的批量请求) 时不传请求头, 下游自己决定采样
+public class TraceRestTemplateInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Tracer tracer;
+
+    public TraceRestTemplateInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        TraceContext current = tracer.current();
+        if (current == null) {
+            return execution.execute(request, body);
+        }
+        TraceContext context = current.child();
+        TraceHeaders.inject(context, request.getHeaders()::set);
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            return execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            tracer.record(context, request.getMethodValue() + " " + request.getURI().getHost()
+                    + request.getURI().getPath(), start, error);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.zxin.instrumentation.trace;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 服务端的 span: 从请求头读上游的 context, 整个请求处理期间放在 ThreadLocal 里
+// 不信任上游时 (网关) 忽略请求里的 B3 请求头, 否则谁都可以带上 X-B3-Sampled: 1 让每个请求都被采样, 把 SpanRingBuffer 刷掉
+public class TraceServletFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+    private final boolean trustUpstream;
+
+    public TraceServletFilter(Tracer tracer, boolean trustUpstream) {
+        this.tracer = tracer;
+        this.trustUpstream = trustUpstream;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TraceContext upstream = trustUpstream ? TraceHeaders.extract(request::getHeader) : null;
+        TraceContext context = tracer.nextServer(upstream);
+        TraceContext previous = tracer.swap(context);
+        long start = System.nanoTime();
+        Throwable error = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            tracer.swap(previous);
+            if (request.isAsyncStarted()) {
+                // 异步的请求 (返回 CompletableFuture 的接口) 在响应写完的时候才结束
+                request.getAsyncContext().addListener(new SpanAsyncListener(context, start));
+            } else {
+                tracer.record(context, spanName(request, response), start, error);
+            }
+        }
+    }
+
+    // 用匹配到的路径模板 (/user/{id}) 而不是实际路径, 方便按接口对比
+    private static String spanName(HttpServletRequest request, HttpServletResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI())
+                + " " + response.getStatus();
+    }
+
+    private class SpanAsyncListener implements AsyncListener {
+
+        private final TraceContext context;
+        private final long start;
+
+        SpanAsyncListener(TraceContext context, long start) {
+            this.context = context;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            tracer.record(context, spanName((HttpServletRequest) event.getSuppliedRequest(),
+                    (HttpServletResponse) event.getSuppliedResponse()), start, null);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
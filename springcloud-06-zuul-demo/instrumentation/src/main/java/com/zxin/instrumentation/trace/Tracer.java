@@ -0,0 +1,58 @@
+package com.zxin.instrumentation.trace;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 当前线程的 TraceContext 和 span 的记录
+// 采样只在入口 (没有上游的请求头时) 决定一次, 不采样的请求只多一个 ThreadLocal 和几个请求头, 不记录 span
+public class Tracer {
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final String service;
+    private final double sampleRate;
+    private final SpanRingBuffer spans;
+
+    public Tracer(String service, double sampleRate, SpanRingBuffer spans) {
+        this.service = service;
+        this.sampleRate = sampleRate;
+        this.spans = spans;
+    }
+
+    public TraceContext current() {
+        return CURRENT.get();
+    }
+
+    // 服务端收到请求: 上游传了 context 就是它的下一跳, 没传就按采样率开一个新的 trace
+    public TraceContext nextServer(TraceContext upstream) {
+        if (upstream != null) {
+            return upstream.child();
+        }
+        return TraceContext.root(sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    // 换成 context (null 表示清掉), 返回原来的, 用完要换回去
+    public TraceContext swap(TraceContext context) {
+        TraceContext previous = CURRENT.get();
+        if (context == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+        return previous;
+    }
+
+    // 记录一个从 startNanos (System.nanoTime) 到现在的 span
+    public void record(TraceContext context, String name, long startNanos, Throwable error) {
+        if (!context.isSampled()) {
+            return;
+        }
+        long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        long timestamp = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) - durationMicros;
+        spans.add(new Span(context, service, name, timestamp, durationMicros, error == null ? null : error.toString()));
+    }
+
+    public SpanRingBuffer getSpans() {
+        return spans;
+    }
+}
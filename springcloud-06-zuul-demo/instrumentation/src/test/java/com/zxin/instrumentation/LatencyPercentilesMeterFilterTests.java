@@ -0,0 +1,46 @@
+package com.zxin.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyPercentilesMeterFilterTests {
+
+    private final MeterRegistry registry = newRegistry();
+
+    @Test
+    public void configuredTimersGetPercentiles() {
+        Timer timer = registry.timer("mybatis.statements", "statement", "UserMapper.selectByPrimaryKey");
+        timer.record(10, TimeUnit.MILLISECONDS);
+
+        assertEquals(3, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    public void otherTimersAreUnchanged() {
+        Timer timer = registry.timer("jvm.gc.pause");
+        timer.record(10, TimeUnit.MILLISECONDS);
+
+        assertEquals(0, timer.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    public void onlyTimersAreConfigured() {
+        DistributionSummary summary = registry.summary("gateway.requests.size");
+        summary.record(100);
+
+        assertEquals(0, summary.takeSnapshot().percentileValues().length);
+    }
+
+    private static MeterRegistry newRegistry() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new LatencyPercentilesMeterFilter(new InstrumentationProperties()));
+        return registry;
+    }
+}
@@ -0,0 +1,68 @@
+package com.zxin.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MybatisTimingInterceptorTests {
+
+    private static final String STATEMENT = "com.zxin.userservicegood.mapper.UserMapper.selectByPrimaryKey";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final MybatisTimingInterceptor interceptor = new MybatisTimingInterceptor(registry, null);
+
+    @Test
+    public void recordsTimerPerStatement() throws Throwable {
+        assertEquals("ok", interceptor.intercept(invocation("query")));
+        interceptor.intercept(invocation("query"));
+
+        assertEquals(2, timer().count());
+    }
+
+    @Test
+    public void recordsFailedStatements() throws Throwable {
+        try {
+            interceptor.intercept(invocation("fail"));
+            fail();
+        } catch (InvocationTargetException e) {
+            assertEquals("connection refused", e.getCause().getMessage());
+        }
+
+        assertEquals(1, timer().count());
+    }
+
+    private Timer timer() {
+        return registry.get("mybatis.statements").tag("statement", STATEMENT).timer();
+    }
+
+    private static Invocation invocation(String method) throws NoSuchMethodException {
+        Configuration configuration = new Configuration();
+        MappedStatement ms = new MappedStatement.Builder(configuration, STATEMENT,
+                new StaticSqlSource(configuration, "select 1"), SqlCommandType.SELECT).build();
+        return new Invocation(new FakeExecutor(), FakeExecutor.class.getMethod(method, MappedStatement.class),
+                new Object[]{ms});
+    }
+
+    // 代替 MyBatis 的 Executor, intercept 只用到第一个参数 (MappedStatement)
+    public static class FakeExecutor {
+
+        public Object query(MappedStatement ms) {
+            return "ok";
+        }
+
+        public Object fail(MappedStatement ms) {
+            throw new IllegalStateException("connection refused");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.zxin.instrumentation.trace;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SpanRingBufferTests {
+
+    @Test
+    public void snapshotIsNewestFirst() {
+        SpanRingBuffer buffer = new SpanRingBuffer(4);
+        buffer.add(span("a"));
+        buffer.add(span("b"));
+
+        List<Span> spans = buffer.snapshot();
+        assertEquals(2, spans.size());
+        assertEquals("b", spans.get(0).getName());
+        assertEquals("a", spans.get(1).getName());
+    }
+
+    @Test
+    public void oldestSpansAreOverwrittenWhenFull() {
+        SpanRingBuffer buffer = new SpanRingBuffer(3);
+        for (String name : new String[]{"a", "b", "c", "d", "e"}) {
+            buffer.add(span(name));
+        }
+
+        List<Span> spans = buffer.snapshot();
+        assertEquals(3, spans.size());
+        assertEquals("e", spans.get(0).getName());
+        assertEquals("d", spans.get(1).getName());
+        assertEquals("c", spans.get(2).getName());
+    }
+
+    private static Span span(String name) {
+        return new Span(TraceContext.root(true), "test", name, 0, 0, null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.zxin.instrumentation.trace;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TraceHeadersTests {
+
+    @Test
+    public void injectThenExtractKeepsIds() {
+        TraceContext context = TraceContext.root(true).child();
+        Map<String, String> headers = new HashMap<>();
+        TraceHeaders.inject(context, headers::put);
+
+        TraceContext extracted = TraceHeaders.extract(headers::get);
+        assertEquals(context.getTraceId(), extracted.getTraceId());
+        assertEquals(context.getSpanId(), extracted.getSpanId());
+        assertTrue(extracted.isSampled());
+        assertEquals(TraceContext.toHex(context.getParentId()), headers.get(TraceHeaders.PARENT_SPAN_ID));
+    }
+
+    @Test
+    public void unsampledDecisionIsPropagated() {
+        Map<String, String> headers = new HashMap<>();
+        TraceHeaders.inject(TraceContext.root(false), headers::put);
+        assertEquals("0", headers.get(TraceHeaders.SAMPLED));
+
+        // 下游的采样率是 100%, 也跟着上游不采样
+        SpanRingBuffer spans = new SpanRingBuffer(10);
+        Tracer tracer = new Tracer("downstream", 1, spans);
+        TraceContext server = tracer.nextServer(TraceHeaders.extract(headers::get));
+        assertFalse(server.isSampled());
+        tracer.record(server, "GET /user/{id} 200", System.nanoTime(), null);
+        assertTrue(spans.snapshot().isEmpty());
+    }
+
+    @Test
+    public void malformedHeadersAreIgnored() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(TraceHeaders.TRACE_ID, "not-hex");
+        headers.put(TraceHeaders.SPAN_ID, "1");
+        headers.put(TraceHeaders.SAMPLED, "1");
+        assertNull(TraceHeaders.extract(headers::get));
+    }
+}
@@ -0,0 +1,49 @@
+package com.zxin.instrumentation.trace;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TraceServletFilterTests {
+
+    private static final String CLIENT_TRACE_ID = "00000000000000aa";
+
+    // 采样率是 0, 只有上游说要采样的请求才会记录
+    private final SpanRingBuffer spans = new SpanRingBuffer(10);
+    private final Tracer tracer = new Tracer("gateway", 0, spans);
+
+    @Test
+    public void trustedUpstreamDecidesSampling() throws Exception {
+        new TraceServletFilter(tracer, true).doFilter(sampledRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        List<Span> recorded = spans.snapshot();
+        assertEquals(1, recorded.size());
+        assertEquals(CLIENT_TRACE_ID, recorded.get(0).getTraceId());
+    }
+
+    @Test
+    public void untrustedUpstreamCannotForceSampling() throws Exception {
+        TraceContext[] seen = new TraceContext[1];
+        FilterChain chain = (request, response) -> seen[0] = tracer.current();
+        new TraceServletFilter(tracer, false).doFilter(sampledRequest(), new MockHttpServletResponse(), chain);
+
+        assertTrue(spans.snapshot().isEmpty());
+        assertNotEquals(CLIENT_TRACE_ID, TraceContext.toHex(seen[0].getTraceId()));
+    }
+
+    private static MockHttpServletRequest sampledRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/consumer-demo/user/1");
+        request.addHeader(TraceHeaders.TRACE_ID, CLIENT_TRACE_ID);
+        request.addHeader(TraceHeaders.SPAN_ID, CLIENT_TRACE_ID);
+        request.addHeader(TraceHeaders.SAMPLED, "1");
+        return request;
+    }
+}
@@ -0,0 +1,20 @@
+package com.zxin.registrysnapshot;
+
+import com.netflix.discovery.BackupRegistry;
+import com.netflix.discovery.shared.Applications;
+
+// 启动时第一次从 Eureka 拉取失败, Eureka 客户端会调用这里, 用本地快照先把服务列表填上
+// 配置: eureka.client.backup-registry-impl (Eureka 用无参构造方法反射创建)
+public class FileBackupRegistry implements BackupRegistry {
+
+    // 没有快照返回 null; 按服务名建索引、过滤掉不是 UP 的实例由 DiscoveryClient 拿到之后自己做 (filterAndShuffle)
+    @Override
+    public Applications fetchRegistry() {
+        return RegistrySnapshot.read();
+    }
+
+    @Override
+    public Applications fetchRegistry(String[] includeRemoteRegions) {
+        return fetchRegistry();
+    }
+}
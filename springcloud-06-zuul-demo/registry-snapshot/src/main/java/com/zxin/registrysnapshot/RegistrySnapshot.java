@@ -0,0 +1,63 @@
+package com.zxin.registrysnapshot;
+
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.Applications;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// 服务列表(注册表)的本地快照文件, 每次从 Eureka 拉取成功后写一次, Eureka 连不上时启动用它
+// 格式和 Eureka 的 /eureka/apps 接口一样 (JSON)
+public final class RegistrySnapshot {
+
+    private static final CodecWrappers.JacksonJson CODEC = new CodecWrappers.JacksonJson();
+
+    // FileBackupRegistry 由 Eureka 反射创建, 拿不到 Spring 的配置, 所以路径放在这里 (见 RegistrySnapshotEnvironmentPostProcessor)
+    private static volatile Path file;
+
+    private RegistrySnapshot() {
+    }
+
+    static void setFile(Path snapshotFile) {
+        file = snapshotFile;
+    }
+
+    public static Path getFile() {
+        return file;
+    }
+
+    // 没有快照或者读不出来返回 null
+    public static Applications read() {
+        Path snapshotFile = file;
+        if (snapshotFile == null || !Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try {
+            return CODEC.decode(new String(Files.readAllBytes(snapshotFile), StandardCharsets.UTF_8), Applications.class);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public static String encode(Applications applications) throws IOException {
+        return CODEC.encode(applications);
+    }
+
+    // 先写临时文件再改名, 进程中途退出也不会留下写了一半的快照
+    public static void write(String json) throws IOException {
+        Path snapshotFile = file;
+        if (snapshotFile == null) {
+            return;
+        }
+        Path parent = snapshotFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        Files.write(tmp, json.getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
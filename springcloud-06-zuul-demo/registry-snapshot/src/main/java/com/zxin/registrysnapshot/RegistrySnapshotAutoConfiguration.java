@@ -0,0 +1,18 @@
+package com.zxin.registrysnapshot;
+
+import com.netflix.discovery.EurekaClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 加了这个依赖的 Eureka 客户端自动生效 (META-INF/spring.factories), 网关和消费者共用
+// 启动时用快照还要在 yml 里配 eureka.client.backup-registry-impl: com.zxin.registrysnapshot.FileBackupRegistry
+@Configuration
+@ConditionalOnClass(EurekaClient.class)
+public class RegistrySnapshotAutoConfiguration {
+
+    @Bean
+    public RegistrySnapshotWriter registrySnapshotWriter() {
+        return new RegistrySnapshotWriter();
+    }
+}
@@ -0,0 +1,22 @@
+package com.zxin.registrysnapshot;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.nio.file.Paths;
+
+// 在 Eureka 客户端创建之前确定快照文件的位置: registry-snapshot.file, 默认放在临时目录
+// 在本模块的 META-INF/spring.factories 里注册
+public class RegistrySnapshotEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        String file = environment.getProperty("registry-snapshot.file");
+        if (file == null) {
+            String name = environment.getProperty("spring.application.name", "application");
+            file = Paths.get(System.getProperty("java.io.tmpdir"), name + "-registry.json").toString();
+        }
+        RegistrySnapshot.setFile(Paths.get(file));
+    }
+}
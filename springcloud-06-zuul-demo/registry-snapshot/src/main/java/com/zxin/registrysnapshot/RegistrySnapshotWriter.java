@@ -0,0 +1,40 @@
+package com.zxin.registrysnapshot;
+
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+
+// Eureka 客户端每次刷新完本地服务列表(全量或增量)都会发 HeartbeatEvent, 这时把服务列表写到快照文件
+public class RegistrySnapshotWriter implements ApplicationListener<HeartbeatEvent> {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrySnapshotWriter.class);
+
+    @Autowired
+    private EurekaClient eurekaClient;
+
+    private String lastJson; // 没有变化就不重写文件
+
+    @Override
+    public synchronized void onApplicationEvent(HeartbeatEvent event) {
+        Applications applications = eurekaClient.getApplications();
+        if (applications == null || applications.getRegisteredApplications().isEmpty()) {
+            return; // 空的服务列表不要覆盖之前的快照
+        }
+        try {
+            String json = RegistrySnapshot.encode(applications);
+            if (json.equals(lastJson)) {
+                return;
+            }
+            RegistrySnapshot.write(json);
+            lastJson = json;
+        } catch (IOException e) {
+            log.warn("写服务列表快照失败: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.zxin.registrysnapshot;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RegistrySnapshotTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("registry.json");
+        RegistrySnapshot.setFile(file);
+    }
+
+    @After
+    public void tearDown() {
+        RegistrySnapshot.setFile(null);
+    }
+
+    @Test
+    public void writtenSnapshotIsReadBack() {
+        EurekaClient eurekaClient = mock(EurekaClient.class);
+        when(eurekaClient.getApplications()).thenReturn(applications());
+        RegistrySnapshotWriter writer = new RegistrySnapshotWriter();
+        ReflectionTestUtils.setField(writer, "eurekaClient", eurekaClient);
+
+        writer.onApplicationEvent(new HeartbeatEvent(this, 1L));
+        assertTrue(Files.isRegularFile(file));
+
+        Applications restored = new FileBackupRegistry().fetchRegistry();
+        Application app = restored.getRegisteredApplications("USER-SERVICE-GOOD-4");
+        assertEquals(1, app.getInstances().size());
+        InstanceInfo instance = app.getInstances().get(0);
+        assertEquals("10.0.0.1", instance.getIPAddr());
+        assertEquals(8081, instance.getPort());
+    }
+
+    @Test
+    public void missingSnapshotReturnsNull() {
+        assertNull(new FileBackupRegistry().fetchRegistry());
+    }
+
+    @Test
+    public void corruptSnapshotReturnsNull() throws Exception {
+        Files.write(file, "{\"applications\": {".getBytes(StandardCharsets.UTF_8)); // 写了一半的文件
+        assertNull(new FileBackupRegistry().fetchRegistry());
+    }
+
+    private static Applications applications() {
+        InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+                .setAppName("USER-SERVICE-GOOD-4")
+                .setInstanceId("10.0.0.1:user-service-good-4:8081")
+                .setHostName("10.0.0.1")
+                .setIPAddr("10.0.0.1")
+                .setPort(8081)
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+                .build();
+        Application app = new Application("USER-SERVICE-GOOD-4");
+        app.addInstance(instance);
+        Applications applications = new Applications();
+        applications.addApplication(app);
+        return applications;
+    }
+}
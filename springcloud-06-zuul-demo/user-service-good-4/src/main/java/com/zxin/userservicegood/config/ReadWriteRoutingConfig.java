@@ -0,0 +1,43 @@
+package com.zxin.userservicegood.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zxin.userservicegood.datasource.ReadWriteRoutingDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReadWriteRoutingProperties.class)
+public class ReadWriteRoutingConfig {
+
+    @Bean // 关闭时会调用 close(), 停掉检查线程并关闭所有连接池
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReadWriteRoutingProperties prop) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadWriteRoutingProperties.Replica replica : prop.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setConnectionTimeout(prop.getConnectionTimeout().toMillis());
+            replicas.add(dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, prop.getHealthCheckInterval(), prop.getValidationTimeout());
+    }
+
+    // 给 MyBatis 和事务管理器用的 DataSource: 第一次执行 SQL 时才拿连接, 这时已经知道事务是不是只读了
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
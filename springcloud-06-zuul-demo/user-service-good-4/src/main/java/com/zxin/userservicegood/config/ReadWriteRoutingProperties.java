@@ -0,0 +1,77 @@
+package com.zxin.userservicegood.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "datasource-routing")  // 读写分离的配置, 主库还是用 spring.datasource
+public class ReadWriteRoutingProperties {
+    List<Replica> replicas = new ArrayList<>();          // 从库, 没有配置就全部走主库
+    Duration healthCheckInterval = Duration.ofSeconds(5); // 从库检查的间隔
+    Duration validationTimeout = Duration.ofSeconds(1);   // 检查时 isValid 的超时
+    Duration connectionTimeout = Duration.ofSeconds(1);   // 从库拿连接的超时, 短一点, 连不上尽快切到主库
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public Duration getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(Duration validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public static class Replica {
+        String url;
+        String username;
+        String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -1,13 +1,35 @@
 package com.zxin.userservicegood.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zxin.userservicegood.export.CsvUserExportWriter;
+import com.zxin.userservicegood.export.NdjsonUserExportWriter;
+import com.zxin.userservicegood.export.UserExportWriter;
 import com.zxin.userservicegood.pojo.User;
+import com.zxin.userservicegood.pojo.UserPage;
+import com.zxin.userservicegood.service.InvalidPageTokenException;
 import com.zxin.userservicegood.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("user")
@@ -16,11 +38,57 @@ public class QueryController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${user.bulk-insert.max-size:10000}")
+    private int maxBulkInsertSize;
+
     @GetMapping("{id}")
     public User hello(@PathVariable("id") Integer id){
         return userService.queryById(id);
     }
-}
 
+    // 批量查询: GET /user?ids=1,2,3  一次 IN 查询代替多次单条查询
+    @GetMapping
+    public List<User> queryByIds(@RequestParam("ids") List<Integer> ids){
+        return userService.queryByIds(ids);
+    }
 
+    // 分页列表: GET /user/page?size=100&next=<上一页返回的 next>  按 id 升序, 翻到多深都是一次索引查找
+    @GetMapping("page")
+    public UserPage queryPage(@RequestParam(value = "next", required = false) String next,
+                              @RequestParam(value = "size", defaultValue = "100") int size){
+        return userService.queryPage(next, size);
+    }
 
+    // 批量新增: POST /user/batch  body 是 User 数组, 返回带自增 id 的同一个数组
+    // 整个数组在一个事务里, 超过 user.bulk-insert.max-size 条返回 400, 让调用方分几次发
+    @PostMapping("batch")
+    public List<User> insertUsers(@RequestBody List<User> users){
+        if (users.size() > maxBulkInsertSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "一次最多新增 " + maxBulkInsertSize + " 个用户");
+        }
+        return userService.insertUsers(users);
+    }
+
+    // 全表导出: GET /user/export?format=ndjson|csv  边查边写到响应里 (chunked), 不会整表加载到内存
+    @GetMapping("export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader("Content-Disposition", "attachment; filename=tbl_user." + (csv ? "csv" : "ndjson"));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        UserExportWriter exportWriter = csv ? new CsvUserExportWriter(writer) : new NdjsonUserExportWriter(objectMapper, writer);
+        userService.exportAll(exportWriter);
+    }
+
+    // 分页令牌不对返回 400
+    @ExceptionHandler(InvalidPageTokenException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(InvalidPageTokenException e){
+        return e.getMessage();
+    }
+}
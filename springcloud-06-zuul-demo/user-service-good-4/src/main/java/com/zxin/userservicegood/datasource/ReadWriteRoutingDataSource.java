@@ -0,0 +1,135 @@
+package com.zxin.userservicegood.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 读写分离: @Transactional(readOnly = true) 里的连接轮流从健康的从库拿, 其它的都走主库
+// 从库定期检查, 拿连接失败的从库先摘掉, 没有可用从库时读也走主库
+// 要包在 LazyConnectionDataSourceProxy 里用: 事务开始时还不知道是不是只读, 第一次执行 SQL 时才真正拿连接
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+    private volatile List<DataSource> healthyReplicas; // 每次整体替换, 读的时候不用加锁
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                      Duration healthCheckInterval, Duration validationTimeout) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.healthyReplicas = this.replicas; // 启动时先认为都可用
+        this.validationTimeoutSeconds = (int) Math.max(1, validationTimeout.getSeconds());
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!replicas.isEmpty()) {
+            long interval = healthCheckInterval.toMillis();
+            healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    public List<DataSource> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    // 检查所有从库 (包括之前摘掉的), 能连上并且 isValid 的才留下
+    // 每个从库单独 catch: 定时任务抛出异常后就不会再执行了, 连接池也可能抛 RuntimeException (比如连接池已关闭)
+    public void checkReplicas() {
+        List<DataSource> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            DataSource replica = replicas.get(i);
+            try (Connection connection = replica.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    healthy.add(replica);
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("从库 {} 检查失败: {}", i, e.toString());
+            }
+        }
+        if (healthy.size() != healthyReplicas.size()) {
+            log.info("可用的从库: {}/{}", healthy.size(), replicas.size());
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    @Override
+    public void close() throws IOException {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas) {
+            closeQuietly(replica);
+        }
+        closeQuietly(primary);
+    }
+
+    private Connection route(ConnectionGetter getter) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return getter.get(primary);
+        }
+        List<DataSource> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return getter.get(primary);
+        }
+        DataSource replica = healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size()));
+        try {
+            return getter.get(replica);
+        } catch (SQLException e) {
+            // 这次读改走主库, 从库等下一次检查通过再加回来
+            log.warn("从库拿连接失败, 改用主库: {}", e.getMessage());
+            markDown(replica);
+            return getter.get(primary);
+        }
+    }
+
+    private synchronized void markDown(DataSource replica) {
+        List<DataSource> healthy = new ArrayList<>(healthyReplicas);
+        if (healthy.remove(replica)) {
+            healthyReplicas = Collections.unmodifiableList(healthy);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof Closeable) {
+            try {
+                ((Closeable) dataSource).close();
+            } catch (IOException e) {
+                log.debug("关闭连接池失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    private interface ConnectionGetter {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+}
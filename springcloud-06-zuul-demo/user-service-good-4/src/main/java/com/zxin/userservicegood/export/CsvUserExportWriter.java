@@ -0,0 +1,52 @@
+package com.zxin.userservicegood.export;
+
+import com.zxin.userservicegood.pojo.User;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// CSV (RFC 4180): 第一行是表头, 含逗号/引号/换行的字段用双引号括起来
+public class CsvUserExportWriter implements UserExportWriter {
+
+    private final Writer writer;
+
+    public CsvUserExportWriter(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write("id,last_name,email\r\n");
+    }
+
+    @Override
+    public void write(User user) throws IOException {
+        if (user.getId() != null) {
+            writer.write(user.getId().toString());
+        }
+        writer.write(',');
+        writeField(user.getLastName());
+        writer.write(',');
+        writeField(user.getEmail());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
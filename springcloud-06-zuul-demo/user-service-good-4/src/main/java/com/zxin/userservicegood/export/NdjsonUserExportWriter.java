@@ -0,0 +1,35 @@
+package com.zxin.userservicegood.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zxin.userservicegood.pojo.User;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// 每行一个 JSON 对象 (application/x-ndjson), 整个导出共用一个 JsonGenerator
+public class NdjsonUserExportWriter implements UserExportWriter {
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    public NdjsonUserExportWriter(ObjectMapper objectMapper, Writer writer) throws IOException {
+        // 默认每写一个对象就 flush 一次, 会让缓冲失效, 这里关掉, 由 BufferedWriter 攒满再写
+        this.objectWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(writer);
+        this.generator.setRootValueSeparator(null); // 默认用空格分隔, 这里自己写换行
+    }
+
+    @Override
+    public void write(User user) throws IOException {
+        objectWriter.writeValue(generator, user);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
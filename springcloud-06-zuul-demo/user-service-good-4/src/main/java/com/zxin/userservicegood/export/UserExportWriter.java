@@ -0,0 +1,13 @@
+package com.zxin.userservicegood.export;
+
+import com.zxin.userservicegood.pojo.User;
+
+import java.io.IOException;
+
+// 导出时每读到一行就写一行, 不同的格式 (NDJSON/CSV) 各有一个实现
+public interface UserExportWriter {
+
+    void write(User user) throws IOException;
+
+    void flush() throws IOException;
+}
@@ -1,7 +1,24 @@
 package com.zxin.userservicegood.mapper;
 
 import com.zxin.userservicegood.pojo.User;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
 import tk.mybatis.mapper.common.Mapper;
 
+import java.util.List;
+
 public interface UserMapper extends Mapper<User> {
+
+    // 全表导出用: 返回 Cursor, 一边读一边处理, 不会把整张表放进 List
+    // fetchSize = Integer.MIN_VALUE 让 MySQL 驱动逐行流式返回 (默认会把结果集全部读到内存)
+    // 必须在事务里迭代, 事务结束 Cursor 就关了
+    @Select("SELECT id, last_name AS lastName, email FROM tbl_user ORDER BY id")
+    @Options(fetchSize = Integer.MIN_VALUE)
+    Cursor<User> selectAllAsCursor();
+
+    // 分页用 keyset (WHERE id > 上一页最后的 id) 代替 OFFSET: 走主键索引直接定位, 第几页都一样快
+    @Select("SELECT id, last_name AS lastName, email FROM tbl_user WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<User> selectPageAfter(@Param("afterId") int afterId, @Param("limit") int limit);
 }
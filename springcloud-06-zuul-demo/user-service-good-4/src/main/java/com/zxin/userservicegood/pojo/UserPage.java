@@ -0,0 +1,34 @@
+package com.zxin.userservicegood.pojo;
+
+import java.util.List;
+
+// 分页查询的结果, next 为 null 表示已经是最后一页
+public class UserPage {
+
+    private List<User> items;
+    private String next; // 下一页的令牌, 原样传回 /user/page?next=
+
+    public UserPage() {
+    }
+
+    public UserPage(List<User> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<User> getItems() {
+        return items;
+    }
+
+    public void setItems(List<User> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+}
@@ -0,0 +1,9 @@
+package com.zxin.userservicegood.service;
+
+// 调用方传的分页令牌不对, QueryController 返回 400; 其他的 IllegalArgumentException 还是服务端的错误
+public class InvalidPageTokenException extends RuntimeException {
+
+    public InvalidPageTokenException(String token) {
+        super("无效的分页令牌: " + token);
+    }
+}
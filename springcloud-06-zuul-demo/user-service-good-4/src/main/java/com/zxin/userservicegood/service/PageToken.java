@@ -0,0 +1,35 @@
+package com.zxin.userservicegood.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// 分页令牌: 对调用方不透明, 里面其实是上一页最后一个 id, 以后换分页方式不影响调用方
+final class PageToken {
+
+    private static final String PREFIX = "u1:"; // 版本号, 防止随便拼一个字符串当令牌
+
+    private PageToken() {
+    }
+
+    static String encode(int lastId) {
+        byte[] bytes = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static int decode(String token) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException(token);
+        }
+        if (!value.startsWith(PREFIX)) {
+            throw new InvalidPageTokenException(token);
+        }
+        try {
+            return Integer.parseInt(value.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new InvalidPageTokenException(token);
+        }
+    }
+}
@@ -1,24 +1,139 @@
 package com.zxin.userservicegood.service;
 
+import com.zxin.userservicegood.export.UserExportWriter;
 import com.zxin.userservicegood.mapper.UserMapper;
 import com.zxin.userservicegood.pojo.User;
+import com.zxin.userservicegood.pojo.UserPage;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tk.mybatis.mapper.entity.Example;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Value("${user.bulk-insert.batch-size:500}")
+    private int batchSize;
+
+    // 批量插入专用: BATCH 执行器把多条 INSERT 攒起来一次 executeBatch
+    // 不能注册成 SqlSessionTemplate 的 Bean, 否则自动配置的那个就不创建了, 所有 mapper 都会变成 BATCH
+    private SqlSessionTemplate batchSqlSession;
+
+    @PostConstruct
+    public void init(){
+        if (batchSize <= 0) {
+            // 启动时就报错, 不要等到批量插入时在事务里除以 0
+            throw new IllegalStateException("user.bulk-insert.batch-size 必须大于 0, 现在是 " + batchSize);
+        }
+        batchSqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+    }
+
+    @Cacheable(cacheNames = "user", key = "#id", unless = "#result == null")
+    @Transactional(readOnly = true) // 只读事务走从库 (见 ReadWriteRoutingDataSource)
     public User queryById(Integer id){
         return userMapper.selectByPrimaryKey(id);
     }
 
+    // 批量查询，只发一条 SELECT ... WHERE id IN (...)
+    @Transactional(readOnly = true)
+    public List<User> queryByIds(List<Integer> ids){
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(ids); // 去重，保持请求里的顺序
+        distinctIds.remove(null);
+        if (distinctIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Example example = new Example(User.class);
+        example.createCriteria().andIn("id", new ArrayList<>(distinctIds));
+        // IN 不保证返回顺序, 按请求里 id 的顺序重新排, 查不到的 id 不返回
+        Map<Integer, User> byId = new HashMap<>();
+        for (User user : userMapper.selectByExample(example)) {
+            byId.put(user.getId(), user);
+        }
+        List<User> users = new ArrayList<>(byId.size());
+        for (Integer id : distinctIds) {
+            User user = byId.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    // keyset 分页: next 为空查第一页, 多查一条用来判断还有没有下一页
+    @Transactional(readOnly = true)
+    public UserPage queryPage(String next, int size){
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int afterId = next == null || next.isEmpty() ? 0 : PageToken.decode(next);
+        List<User> users = userMapper.selectPageAfter(afterId, limit + 1);
+        if (users.size() <= limit) {
+            return new UserPage(users, null);
+        }
+        users = new ArrayList<>(users.subList(0, limit));
+        return new UserPage(users, PageToken.encode(users.get(limit - 1).getId()));
+    }
+
+    // 全表导出: 通过 Cursor 一行一行读, 读一行写一行, 内存占用和表的大小无关
+    // readOnly 事务保证迭代期间连接和 Cursor 一直打开
+    @Transactional(readOnly = true)
+    public long exportAll(UserExportWriter writer) throws IOException {
+        long count = 0;
+        try (Cursor<User> cursor = userMapper.selectAllAsCursor()) {
+            for (User user : cursor) {
+                writer.write(user);
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
     @Transactional  // 事务
+    @CacheEvict(cacheNames = "user", key = "#user.id")
     public void insertUser(User user){
         userMapper.insert(user);
     }
-}
 
+    // 批量插入: 整个列表一个事务, 每 batchSize 条 flush 一次 (一次 executeBatch)
+    // 驱动开了 rewriteBatchedStatements, 一批会被改写成一条多值 INSERT; 自增 id 在 flush 时回填到每个 User
+    // 注意同一个事务里不能再用普通的 userMapper, MyBatis 不允许一个事务里切换执行器
+    @Transactional
+    public List<User> insertUsers(List<User> users){
+        UserMapper batchMapper = batchSqlSession.getMapper(UserMapper.class);
+        for (int i = 0; i < users.size(); i++) {
+            batchMapper.insert(users.get(i));
+            if ((i + 1) % batchSize == 0) {
+                batchSqlSession.flushStatements();
+            }
+        }
+        batchSqlSession.flushStatements();
+        return users;
+    }
+}
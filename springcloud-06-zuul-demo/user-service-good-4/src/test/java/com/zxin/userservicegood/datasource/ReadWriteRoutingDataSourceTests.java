@@ -0,0 +1,100 @@
+package com.zxin.userservicegood.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+// 两个 H2 内存库代替主库和从库, 每个库里有一张表记着自己是谁
+public class ReadWriteRoutingDataSourceTests {
+
+    private SwitchableDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Before
+    public void setUp() {
+        JdbcDataSource primary = h2(new JdbcDataSource(), "primary");
+        replica = h2(new SwitchableDataSource(), "replica");
+        // 检查间隔设得很长, 测试里手动调用 checkReplicas
+        routing = new ReadWriteRoutingDataSource(primary, Collections.singletonList(replica),
+                Duration.ofHours(1), Duration.ofSeconds(1));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        routing.close();
+    }
+
+    @Test
+    public void writeTransactionUsesPrimary() {
+        assertEquals("primary", readWrite.execute(status -> whoAmI()));
+    }
+
+    @Test
+    public void readOnlyTransactionUsesReplica() {
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    @Test
+    public void nonTransactionalCallUsesPrimary() {
+        assertEquals("primary", whoAmI());
+    }
+
+    @Test
+    public void readOnlyFailsOverToPrimaryWhenReplicaIsDown() {
+        replica.down = true; // 从库连不上
+        assertEquals("primary", readOnly.execute(status -> whoAmI()));
+        assertTrue(routing.getHealthyReplicas().isEmpty());
+
+        replica.down = false; // 从库恢复, 检查通过后加回来
+        routing.checkReplicas();
+        assertEquals("replica", readOnly.execute(status -> whoAmI()));
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM who_am_i", String.class);
+    }
+
+    private static <T extends JdbcDataSource> T h2(T dataSource, String name) {
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS who_am_i");
+        jdbcTemplate.execute("CREATE TABLE who_am_i (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO who_am_i VALUES (?)", name);
+        return dataSource;
+    }
+
+    // 可以模拟宕机的从库
+    static class SwitchableDataSource extends JdbcDataSource {
+        volatile boolean down;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica is down");
+            }
+            return super.getConnection();
+        }
+    }
+}